@@ -0,0 +1,80 @@
+package com.first.image.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// 두 JMH JSON 결과(-rf json)를 벤치마크+파라미터별로 비교하여 점수와 연산당 할당량 변화를 출력
+public final class BenchmarkCompare {
+
+    private static final String ALLOC_NORM = "gc.alloc.rate.norm";
+
+    private BenchmarkCompare() {
+    }
+
+    private record Result(double score, double error, String unit, Double allocPerOp) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BenchmarkCompare <before.json> <after.json>");
+            System.exit(2);
+        }
+        Map<String, Result> before = read(Path.of(args[0]));
+        Map<String, Result> after = read(Path.of(args[1]));
+
+        System.out.printf("%-70s %14s %14s %9s %14s %14s %9s%n",
+                "Benchmark", "Before", "After", "Change", "B/op before", "B/op after", "Change");
+        for (Map.Entry<String, Result> entry : after.entrySet()) {
+            Result a = entry.getValue();
+            Result b = before.get(entry.getKey());
+            if (b == null) {
+                System.out.printf("%-70s %14s %14.3f %9s  (%s)%n", entry.getKey(), "-", a.score(), "new", a.unit());
+                continue;
+            }
+            System.out.printf("%-70s %14.3f %14.3f %9s %14s %14s %9s  (%s +- %.3f)%n",
+                    entry.getKey(), b.score(), a.score(), change(b.score(), a.score()),
+                    format(b.allocPerOp()), format(a.allocPerOp()), change(b.allocPerOp(), a.allocPerOp()),
+                    a.unit(), a.error());
+        }
+        before.keySet().stream()
+                .filter(key -> !after.containsKey(key))
+                .forEach(key -> System.out.printf("%-70s %14.3f %14s %9s%n", key, before.get(key).score(), "-", "removed"));
+    }
+
+    private static Map<String, Result> read(Path path) throws IOException {
+        Map<String, Result> results = new TreeMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(path.toFile())) {
+            JsonNode primary = run.path("primaryMetric");
+            JsonNode alloc = run.path("secondaryMetrics").path(ALLOC_NORM);
+            results.put(key(run), new Result(primary.path("score").asDouble(), primary.path("scoreError").asDouble(),
+                    primary.path("scoreUnit").asText(), alloc.isMissingNode() ? null : alloc.path("score").asDouble()));
+        }
+        return results;
+    }
+
+    private static String key(JsonNode run) {
+        String name = run.path("benchmark").asText();
+        name = name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1);
+        Map<String, String> params = new LinkedHashMap<>();
+        run.path("params").fields().forEachRemaining(field -> params.put(field.getKey(), field.getValue().asText()));
+        String threads = run.path("threads").asInt(1) > 1 ? " t=" + run.path("threads").asInt() : "";
+        return params.isEmpty() ? name + threads : name + " " + params + threads;
+    }
+
+    private static String change(Double before, Double after) {
+        if (before == null || after == null || before == 0) {
+            return "-";
+        }
+        return String.format("%+.1f%%", (after - before) / before * 100);
+    }
+
+    private static String format(Double value) {
+        return value == null ? "-" : String.format("%.0f", value);
+    }
+}
@@ -0,0 +1,56 @@
+package com.first.image.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import com.first.image.ImageApplication;
+import com.first.image.upload.service.ThumbnailService;
+
+// 벤치마크용 스프링 컨텍스트: H2 + 인프로세스 S3, 웹 서버와 백그라운드 작업은 측정에서 제외
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(InProcessS3 s3, String... extraArgs) {
+        // devtools 재시작 클래스로더가 측정에 끼어들지 않도록 비활성화
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        List<String> args = new ArrayList<>(List.of(
+                "--minio.endpoint=" + s3.endpoint(),
+                "--spring.datasource.url=jdbc:h2:mem:benchmark",
+                "--spring.autoconfigure.exclude=org.springframework.boot.devtools.autoconfigure.DevToolsDataSourceAutoConfiguration",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--logging.level.root=WARN",
+                // 측정 중에는 주기 작업이 돌지 않도록 간격을 크게 설정
+                "--thumbnail.queue.poll-interval-ms=3600000",
+                "--storage.reclaim.poll-interval-ms=3600000",
+                "--stats.flush-interval-ms=3600000",
+                "--storage.orphan-sweep.enabled=false"));
+        args.addAll(List.of(extraArgs));
+
+        return new SpringApplicationBuilder(ImageApplication.class, Overrides.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+    }
+
+    // 업로드 경로만 측정하도록 썸네일 생성은 디스패치만 하고 실행하지 않음
+    static class Overrides {
+
+        @Bean
+        @Primary
+        ThumbnailService noopThumbnailService() {
+            return new ThumbnailService() {
+                @Override
+                public void generateThumbnailAsync(Long imageId) {
+                }
+            };
+        }
+    }
+}
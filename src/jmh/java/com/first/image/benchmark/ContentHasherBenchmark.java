@@ -0,0 +1,50 @@
+package com.first.image.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.first.image.upload.service.ContentHasher;
+
+// 업로드 해시 경로: 읽기 + 다이제스트 + hex 변환 전체
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContentHasherBenchmark {
+
+    // 4KB, 1MB, 16MB
+    @Param({"4096", "1048576", "16777216"})
+    private int size;
+
+    private ContentHasher hasher;
+
+    private byte[] data;
+
+    @Setup
+    public void setUp() throws IOException {
+        hasher = new ContentHasher();
+        data = new byte[size];
+        new SplittableRandom(42).nextBytes(data);
+    }
+
+    @Benchmark
+    public String hashStream() throws IOException {
+        return hasher.hash(new ByteArrayInputStream(data));
+    }
+}
@@ -0,0 +1,42 @@
+package com.first.image.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.first.image.upload.service.ContentHasher;
+
+// 32바이트 다이제스트의 hex 문자열 변환 (업로드마다 1회)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HexEncodingBenchmark {
+
+    private ContentHasher hasher;
+
+    private byte[] digest;
+
+    @Setup
+    public void setUp() {
+        hasher = new ContentHasher();
+        digest = hasher.digest().digest("benchmark".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public String toHex() {
+        return hasher.toHex(digest);
+    }
+}
@@ -0,0 +1,238 @@
+package com.first.image.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+// 벤치마크용 S3 대역: 업로드 본문은 읽어서 버리고 크기만 기록 (MinIO 없이 SDK 요청 경로까지 측정)
+// 지원: PutObject, 멀티파트 업로드, HeadObject, DeleteObject(s), ListObjectsV2
+public class InProcessS3 implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Pattern XML_KEY = Pattern.compile("<Key>([^<]*)</Key>");
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    private final Map<String, Long> objectSizes = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> multipartSizes = new ConcurrentHashMap<>();
+
+    public InProcessS3() throws IOException {
+        // 기본값(Nagle 사용)이면 100-continue 응답이 지연 ACK 에 걸려 요청마다 수십 ms 가 추가됨
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "in-process-s3");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public URI endpoint() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    public int objectCount() {
+        return objectSizes.size();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String key = exchange.getRequestURI().getPath();
+            String query = exchange.getRequestURI().getRawQuery() == null ? "" : exchange.getRequestURI().getRawQuery();
+            String uploadId = queryParam(query, "uploadId");
+
+            switch (exchange.getRequestMethod()) {
+                case "PUT" -> {
+                    Body body = readBody(exchange);
+                    if (uploadId != null) {
+                        multipartSizes.merge(uploadId, body.length(), Long::sum);
+                    } else {
+                        objectSizes.put(key, body.length());
+                    }
+                    exchange.getResponseHeaders().add("ETag", "\"" + body.md5() + "\"");
+                    exchange.sendResponseHeaders(200, -1);
+                }
+                case "POST" -> {
+                    if (query.startsWith("delete")) {
+                        String xml = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                        Matcher matcher = XML_KEY.matcher(xml);
+                        while (matcher.find()) {
+                            objectSizes.remove(bucketPath(key) + "/" + matcher.group(1));
+                        }
+                        sendXml(exchange, "<DeleteResult></DeleteResult>");
+                        return;
+                    }
+                    readBody(exchange);
+                    if (query.startsWith("uploads")) {
+                        String newUploadId = UUID.randomUUID().toString();
+                        multipartSizes.put(newUploadId, 0L);
+                        sendXml(exchange, "<InitiateMultipartUploadResult><Key>" + key + "</Key><UploadId>"
+                                + newUploadId + "</UploadId></InitiateMultipartUploadResult>");
+                    } else if (uploadId != null) {
+                        Long size = multipartSizes.remove(uploadId);
+                        objectSizes.put(key, size == null ? 0L : size);
+                        sendXml(exchange, "<CompleteMultipartUploadResult><Key>" + key
+                                + "</Key><ETag>\"" + UUID.randomUUID() + "-1\"</ETag></CompleteMultipartUploadResult>");
+                    } else {
+                        exchange.sendResponseHeaders(501, -1);
+                    }
+                }
+                case "GET" -> {
+                    if (!query.contains("list-type=2")) {
+                        exchange.sendResponseHeaders(501, -1);
+                        return;
+                    }
+                    String bucket = bucketPath(key);
+                    String prefix = bucket + "/" + URLDecoder.decode(Objects.requireNonNullElse(queryParam(query, "prefix"), ""), StandardCharsets.UTF_8);
+                    StringBuilder xml = new StringBuilder("<ListBucketResult><IsTruncated>false</IsTruncated>");
+                    objectSizes.forEach((path, size) -> {
+                        if (path.startsWith(prefix)) {
+                            xml.append("<Contents><Key>").append(path.substring(bucket.length() + 1))
+                                    .append("</Key><LastModified>").append(Instant.now())
+                                    .append("</LastModified><Size>").append(size).append("</Size></Contents>");
+                        }
+                    });
+                    sendXml(exchange, xml.append("</ListBucketResult>").toString());
+                }
+                case "HEAD" -> {
+                    Long size = objectSizes.get(key);
+                    if (size == null) {
+                        exchange.sendResponseHeaders(404, -1);
+                    } else {
+                        exchange.getResponseHeaders().add("Content-Length", Long.toString(size));
+                        exchange.sendResponseHeaders(200, -1);
+                    }
+                }
+                case "DELETE" -> {
+                    if (uploadId != null) {
+                        multipartSizes.remove(uploadId);
+                    } else {
+                        objectSizes.remove(key);
+                    }
+                    exchange.sendResponseHeaders(204, -1);
+                }
+                default -> exchange.sendResponseHeaders(501, -1);
+            }
+        }
+    }
+
+    private record Body(long length, String md5) {
+    }
+
+    // aws-chunked 인코딩("크기;chunk-signature=...\r\n데이터\r\n")이면 청크를 풀어서 실제 내용만 계산
+    private Body readBody(HttpExchange exchange) throws IOException {
+        MessageDigest md5 = md5();
+        InputStream in = exchange.getRequestBody();
+        String contentSha = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+        String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        boolean chunked = (contentSha != null && contentSha.startsWith("STREAMING-"))
+                || (encoding != null && encoding.contains("aws-chunked"));
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long length = 0;
+        if (!chunked) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                md5.update(buffer, 0, n);
+                length += n;
+            }
+        } else {
+            while (true) {
+                String header = readLine(in);
+                int separator = header.indexOf(';');
+                long chunkSize = Long.parseLong((separator < 0 ? header : header.substring(0, separator)).trim(), 16);
+                if (chunkSize == 0) {
+                    in.transferTo(OutputStream.nullOutputStream());
+                    break;
+                }
+                long remaining = chunkSize;
+                while (remaining > 0) {
+                    int n = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                    if (n < 0) {
+                        throw new IOException("Truncated aws-chunked body");
+                    }
+                    md5.update(buffer, 0, n);
+                    remaining -= n;
+                }
+                length += chunkSize;
+                readLine(in);
+            }
+        }
+        return new Body(length, HexFormat.of().formatHex(md5.digest()));
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) >= 0 && b != '\n') {
+            if (b != '\r') {
+                line.write(b);
+            }
+        }
+        return line.toString(StandardCharsets.US_ASCII);
+    }
+
+    private static void sendXml(HttpExchange exchange, String xml) throws IOException {
+        byte[] body = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + xml).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    // "/bucket/..." 에서 "/bucket"
+    private static String bucketPath(String path) {
+        int slash = path.indexOf('/', 1);
+        return slash < 0 ? path : path.substring(0, slash);
+    }
+
+    private static String queryParam(String query, String name) {
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                return pair.substring(eq + 1);
+            }
+        }
+        return null;
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.first.image.benchmark;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.first.image.upload.service.ThumbnailService;
+
+// 원본 1회 디코딩 + 설정된 렌디션 전체 생성 (S3 업로드 제외한 CPU 구간)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RenditionBenchmark {
+
+    @Param({"1280x720", "4000x3000", "6000x4000"})
+    private String resolution;
+
+    @Param({"jpg", "png"})
+    private String format;
+
+    private InProcessS3 s3;
+
+    private ConfigurableApplicationContext context;
+
+    private ThumbnailService thumbnailService;
+
+    private byte[] original;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        s3 = new InProcessS3();
+        context = BenchmarkContext.start(s3);
+        thumbnailService = context.getBean(ThumbnailService.class);
+
+        String[] dimensions = resolution.split("x");
+        original = syntheticImage(Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]), format);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        s3.close();
+    }
+
+    @Benchmark
+    public ThumbnailService.RenderedImage createRenditions() throws IOException {
+        return thumbnailService.createRenditions(original);
+    }
+
+    // 그라데이션 + 노이즈: 압축이 지나치게 잘 되지 않도록 사진과 비슷한 엔트로피 확보
+    static byte[] syntheticImage(int width, int height, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, new Color(30, 90, 160), width, height, new Color(220, 170, 60)));
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+
+        SplittableRandom random = new SplittableRandom(7);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int rgb = image.getRGB(x, y);
+                int noise = random.nextInt(-12, 13);
+                int r = clamp(((rgb >> 16) & 0xff) + noise);
+                int gr = clamp(((rgb >> 8) & 0xff) + noise);
+                int b = clamp((rgb & 0xff) + noise);
+                image.setRGB(x, y, (r << 16) | (gr << 8) | b);
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(255, value));
+    }
+}
@@ -0,0 +1,101 @@
+package com.first.image.benchmark;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.first.image.upload.service.ImageService;
+
+// ImageService.uploadImage 전체 경로: 해시 + S3 업로드(인프로세스 대역) + H2 저장
+// 여러 스레드 측정은 -t 옵션 사용 (예: -Djmh.args="-t 8")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UploadBenchmark {
+
+    private static final String PROJECT_ID = "bench";
+
+    // 64KB, 1MB, 8MB (part-size 5MB 초과 시 멀티파트)
+    @Param({"65536", "1048576", "8388608"})
+    private int size;
+
+    private InProcessS3 s3;
+
+    private ConfigurableApplicationContext context;
+
+    private ImageService imageService;
+
+    private byte[] template;
+
+    private ByteArrayMultipartFile duplicate;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    // 스레드마다 버퍼 하나를 재사용하고 앞 8바이트에 일련번호만 바꿔 씀 (매번 복사하면 할당이 측정에 섞임)
+    @State(Scope.Thread)
+    public static class UploadBuffer {
+
+        private byte[] content;
+
+        private ByteBuffer header;
+
+        @Setup(Level.Trial)
+        public void setUp(UploadBenchmark benchmark) {
+            content = benchmark.template.clone();
+            header = ByteBuffer.wrap(content);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        s3 = new InProcessS3();
+        context = BenchmarkContext.start(s3);
+        imageService = context.getBean(ImageService.class);
+
+        template = new byte[size];
+        new SplittableRandom(42).nextBytes(template);
+
+        // 중복 경로 측정용: 같은 내용을 미리 한 번 저장
+        duplicate = new ByteArrayMultipartFile("duplicate.jpg", "image/jpeg", template.clone());
+        imageService.uploadImage(PROJECT_ID, duplicate);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        s3.close();
+    }
+
+    // 매번 내용이 다른 새 파일 (insert 성공 경로)
+    @Benchmark
+    public String uploadNew(UploadBuffer buffer) throws IOException {
+        buffer.header.putLong(0, sequence.incrementAndGet());
+        return imageService.uploadImage(PROJECT_ID, new ByteArrayMultipartFile("new.jpg", "image/jpeg", buffer.content));
+    }
+
+    // 이미 저장된 내용 (유니크 충돌 후 기존 파일 반환 경로)
+    @Benchmark
+    public String uploadDuplicate() throws IOException {
+        return imageService.uploadImage(PROJECT_ID, duplicate);
+    }
+}
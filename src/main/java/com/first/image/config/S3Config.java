@@ -3,13 +3,19 @@ package com.first.image.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import com.first.image.upload.service.StorageCircuitBreaker;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 import java.net.URI;
+import java.time.Duration;
 
 @Configuration
 public class S3Config {
@@ -26,18 +32,83 @@ public class S3Config {
     @Value("${minio.region.static}")
     private String region;
 
+    // 동기 클라이언트 커넥션 풀
+    @Value("${minio.http.max-connections:64}")
+    private int maxConnections;
+
+    @Value("${minio.http.connection-timeout-ms:2000}")
+    private long connectionTimeoutMs;
+
+    @Value("${minio.http.socket-timeout-ms:30000}")
+    private long socketTimeoutMs;
+
+    // 풀의 커넥션이 모두 사용 중일 때 빈 커넥션을 기다리는 시간 (동기/비동기 공통)
+    @Value("${minio.http.connection-acquisition-timeout-ms:5000}")
+    private long connectionAcquisitionTimeoutMs;
+
+    // 비동기 클라이언트 동시 요청 수와 커넥션 대기열
+    @Value("${minio.http.async.max-concurrency:128}")
+    private int asyncMaxConcurrency;
+
+    @Value("${minio.http.async.max-pending-acquires:10000}")
+    private int asyncMaxPendingAcquires;
+
     @Bean
-    public S3Client minioClient() {
+    public S3Client minioClient(StorageCircuitBreaker circuitBreaker) {
         AwsBasicCredentials credentials = AwsBasicCredentials.create(accessKey, secretKey);
         
         return S3Client.builder()
+                .httpClientBuilder(ApacheHttpClient.builder()
+                        .maxConnections(maxConnections)
+                        .connectionTimeout(Duration.ofMillis(connectionTimeoutMs))
+                        .socketTimeout(Duration.ofMillis(socketTimeoutMs))
+                        .connectionAcquisitionTimeout(Duration.ofMillis(connectionAcquisitionTimeoutMs)))
                 .credentialsProvider(StaticCredentialsProvider.create(credentials))
                 .region(Region.of(region))
                 .endpointOverride(URI.create(endpoint))
                 .serviceConfiguration(S3Configuration.builder()
                         .pathStyleAccessEnabled(true)
                         .build())
+                .overrideConfiguration(config -> config.addExecutionInterceptor(new StorageHealthInterceptor(circuitBreaker)))
                 .build();
         
     }
+
+    // 스레드를 점유하지 않는 논블로킹 클라이언트 (Netty)
+    @Bean
+    public S3AsyncClient minioAsyncClient(StorageCircuitBreaker circuitBreaker) {
+        AwsBasicCredentials credentials = AwsBasicCredentials.create(accessKey, secretKey);
+
+        return S3AsyncClient.builder()
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(asyncMaxConcurrency)
+                        .maxPendingConnectionAcquires(asyncMaxPendingAcquires)
+                        .connectionTimeout(Duration.ofMillis(connectionTimeoutMs))
+                        .connectionAcquisitionTimeout(Duration.ofMillis(connectionAcquisitionTimeoutMs))
+                        .readTimeout(Duration.ofMillis(socketTimeoutMs))
+                        .writeTimeout(Duration.ofMillis(socketTimeoutMs)))
+                .credentialsProvider(StaticCredentialsProvider.create(credentials))
+                .region(Region.of(region))
+                .endpointOverride(URI.create(endpoint))
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(true)
+                        .build())
+                .overrideConfiguration(config -> config.addExecutionInterceptor(new StorageHealthInterceptor(circuitBreaker)))
+                .build();
+    }
+
+    // 클라이언트가 MinIO 에 직접 업로드할 수 있도록 서명된 URL 생성
+    @Bean
+    public S3Presigner minioPresigner() {
+        AwsBasicCredentials credentials = AwsBasicCredentials.create(accessKey, secretKey);
+
+        return S3Presigner.builder()
+                .credentialsProvider(StaticCredentialsProvider.create(credentials))
+                .region(Region.of(region))
+                .endpointOverride(URI.create(endpoint))
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(true)
+                        .build())
+                .build();
+    }
 }
\ No newline at end of file
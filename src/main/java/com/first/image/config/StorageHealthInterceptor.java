@@ -0,0 +1,56 @@
+package com.first.image.config;
+
+import java.io.InterruptedIOException;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.util.concurrent.TimeoutException;
+
+import com.first.image.upload.service.StorageCircuitBreaker;
+
+import lombok.RequiredArgsConstructor;
+import software.amazon.awssdk.core.exception.ApiCallAttemptTimeoutException;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+
+// MinIO 호출 결과를 회로 차단기에 기록 (SDK 자체 재시도가 끝난 뒤 호출당 한 번)
+@RequiredArgsConstructor
+class StorageHealthInterceptor implements ExecutionInterceptor {
+
+    private final StorageCircuitBreaker circuitBreaker;
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        circuitBreaker.recordSuccess();
+    }
+
+    // 연결 실패 / 타임아웃 / 5xx / 스로틀링만 장애로 봄 (404 등은 MinIO 가 응답한 것이므로 정상)
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        Throwable e = context.exception();
+        if (e instanceof SdkServiceException serviceException) {
+            if (serviceException.statusCode() >= 500 || serviceException.isThrottlingException()) {
+                circuitBreaker.recordFailure();
+            } else {
+                circuitBreaker.recordSuccess();
+            }
+            return;
+        }
+        if (isUnreachable(e)) {
+            circuitBreaker.recordFailure();
+        }
+    }
+
+    private static boolean isUnreachable(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SocketException || t instanceof InterruptedIOException || t instanceof UnknownHostException
+                    || t instanceof TimeoutException || t instanceof ApiCallTimeoutException
+                    || t instanceof ApiCallAttemptTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
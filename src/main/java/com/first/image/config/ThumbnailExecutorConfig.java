@@ -0,0 +1,134 @@
+package com.first.image.config;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.first.image.upload.service.FairShareQueue;
+import com.first.image.upload.service.ImageRenderService;
+import com.first.image.upload.service.ProjectRateLimiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@EnableAsync
+@EnableScheduling
+@Configuration
+public class ThumbnailExecutorConfig {
+
+    // MinIO 다운로드/업로드 (I/O 대기 위주)
+    @Value("${thumbnail.executor.io.core-size:4}")
+    private int ioCoreSize;
+
+    @Value("${thumbnail.executor.io.max-size:16}")
+    private int ioMaxSize;
+
+    @Value("${thumbnail.executor.io.queue-capacity:500}")
+    private int ioQueueCapacity;
+
+    // ABORT: 거절 후 PROCESSING 상태로 남김 (아웃박스 릴레이 / 선점 폴러가 다시 넘김)
+    // CALLER_RUNS: 큐가 가득 차면 호출 스레드에서 실행, 업로드 요청 스레드가 썸네일 작업 전체를 떠안으므로 권장하지 않음
+    @Value("${thumbnail.executor.io.rejection-policy:ABORT}")
+    private String ioRejectionPolicy;
+
+    // 리사이즈 (CPU 위주), 0이면 코어 수
+    @Value("${thumbnail.executor.cpu.size:0}")
+    private int cpuSize;
+
+    // 요청 시점 렌디션도 CPU 풀에 제출하므로 큐 크기에 포함
+    @Value("${image.render.max-concurrent:0}")
+    private int renderMaxConcurrent;
+
+    // 큐는 프로젝트별 가중 공정 큐 (한 프로젝트의 대량 작업이 다른 프로젝트 작업을 밀어내지 않음)
+    @Bean(name = "thumbnailExecutor")
+    public ThreadPoolTaskExecutor thumbnailExecutor(MeterRegistry meterRegistry, ProjectRateLimiter rateLimiter) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor() {
+            @Override
+            protected BlockingQueue<Runnable> createQueue(int queueCapacity) {
+                return new FairShareQueue(queueCapacity, rateLimiter::weightOf, rateLimiter::meterTagOf, meterRegistry);
+            }
+        };
+        executor.setCorePoolSize(ioCoreSize);
+        executor.setMaxPoolSize(ioMaxSize);
+        executor.setQueueCapacity(ioQueueCapacity);
+        executor.setThreadNamePrefix("thumb-io-");
+        TaskDecorator latency = latencyDecorator(meterRegistry, "io");
+        executor.setTaskDecorator(runnable -> FairShareQueue.attribute(latency.decorate(runnable)));
+        executor.setRejectedExecutionHandler(rejectionHandler(meterRegistry, "io", ioRejectionPolicy));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "thumbnailCpuExecutor")
+    public ThreadPoolTaskExecutor thumbnailCpuExecutor(MeterRegistry meterRegistry) {
+        int size = cpuSize > 0 ? cpuSize : Runtime.getRuntime().availableProcessors();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        // 제출하는 쪽은 I/O 스레드(하나당 최대 1개)와 동시 생성 수가 제한된 요청 시점 렌디션뿐이므로 둘을 합한 만큼이면 거절되지 않음
+        executor.setQueueCapacity(ioMaxSize + ImageRenderService.maxConcurrentRenders(renderMaxConcurrent));
+        executor.setThreadNamePrefix("thumb-cpu-");
+        executor.setTaskDecorator(latencyDecorator(meterRegistry, "cpu"));
+        executor.setRejectedExecutionHandler(rejectionHandler(meterRegistry, "cpu", "CALLER_RUNS"));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    // 큐 대기 시간과 실행 시간을 따로 기록
+    private TaskDecorator latencyDecorator(MeterRegistry meterRegistry, String pool) {
+        Timer waitTimer = Timer.builder("thumbnail.task.wait")
+                .tag("pool", pool)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Timer runTimer = Timer.builder("thumbnail.task.duration")
+                .tag("pool", pool)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        return runnable -> {
+            long submittedAt = System.nanoTime();
+            return () -> {
+                long startedAt = System.nanoTime();
+                waitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    runnable.run();
+                } finally {
+                    runTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            };
+        };
+    }
+
+    private RejectedExecutionHandler rejectionHandler(MeterRegistry meterRegistry, String pool, String policy) {
+        Counter rejected = Counter.builder("thumbnail.task.rejected")
+                .tag("pool", pool)
+                .register(meterRegistry);
+        RejectedExecutionHandler delegate = "ABORT".equalsIgnoreCase(policy)
+                ? new ThreadPoolExecutor.AbortPolicy()
+                : new ThreadPoolExecutor.CallerRunsPolicy();
+
+        return (runnable, executor) -> {
+            rejected.increment();
+            log.warn("Thumbnail {} pool saturated (queue={}, active={}), policy={}",
+                    pool, executor.getQueue().size(), executor.getActiveCount(), policy);
+            delegate.rejectedExecution(runnable, executor);
+        };
+    }
+}
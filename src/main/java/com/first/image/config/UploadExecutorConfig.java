@@ -0,0 +1,34 @@
+package com.first.image.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class UploadExecutorConfig {
+
+    // 대량 업로드 시 해시 계산과 MinIO 업로드를 동시에 수행할 스레드 수
+    @Value("${upload.bulk.concurrency:8}")
+    private int concurrency;
+
+    @Value("${upload.bulk.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Bean(name = "bulkUploadExecutor")
+    public ThreadPoolTaskExecutor bulkUploadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("bulk-upload-");
+        // 큐가 가득 차면 요청 스레드가 직접 처리 (배압)
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
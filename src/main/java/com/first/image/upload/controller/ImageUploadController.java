@@ -4,18 +4,41 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.first.image.upload.dto.BulkUploadResult;
+import com.first.image.upload.dto.CursorPage;
+import com.first.image.upload.dto.DirectUploadComplete;
+import com.first.image.upload.dto.DirectUploadRequest;
+import com.first.image.upload.dto.ImageSummary;
+import com.first.image.upload.dto.NearDuplicate;
+import com.first.image.upload.dto.ProjectStatsResponse;
 import com.first.image.upload.entity.Image;
+import com.first.image.upload.entity.ImageRendition;
+import com.first.image.upload.service.ArchiveLimitExceededException;
+import com.first.image.upload.service.BulkUploadService;
+import com.first.image.upload.service.DirectUploadService;
+import com.first.image.upload.service.ImageDownloadService;
+import com.first.image.upload.service.ImageRenderService;
 import com.first.image.upload.service.ImageService;
+import com.first.image.upload.service.ProjectStatsService;
+import com.first.image.upload.service.RenderCapacityExceededException;
+import com.first.image.upload.service.RenderSpec;
 import com.first.image.upload.service.ThumbnailService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -29,6 +52,16 @@ public class ImageUploadController {
     
     private final ImageService imageService;
 
+    private final ImageDownloadService imageDownloadService;
+
+    private final BulkUploadService bulkUploadService;
+
+    private final DirectUploadService directUploadService;
+
+    private final ImageRenderService imageRenderService;
+
+    private final ProjectStatsService projectStatsService;
+
     @Operation(summary = "이미지 업로드", description = "특정 프로젝트에 이미지를 업로드하고 썸네일을 비동기 생성합니다.")
     @PostMapping("/project/{projectId}/images")
     public ResponseEntity<?> uploadImage(@PathVariable String projectId, @RequestParam("image") MultipartFile image) {
@@ -50,6 +83,46 @@ public class ImageUploadController {
         }
     }
 
+    @Operation(summary = "직접 업로드 슬롯 발급", description = "MinIO 에 직접 업로드할 서명된 URL 을 발급합니다. 같은 파일이 이미 있으면 업로드 없이 기존 파일을 반환합니다.")
+    @PostMapping("/project/{projectId}/images/uploads")
+    public ResponseEntity<?> requestDirectUpload(@PathVariable String projectId, @RequestBody DirectUploadRequest request) {
+        try {
+            return ResponseEntity.ok(directUploadService.requestSlot(projectId, request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "직접 업로드 완료", description = "업로드된 객체의 크기와 체크섬을 검증하고 이미지로 등록합니다.")
+    @PostMapping("/project/{projectId}/images/uploads/complete")
+    public ResponseEntity<?> completeDirectUpload(@PathVariable String projectId, @RequestBody DirectUploadComplete request) {
+        try {
+            String imageId = directUploadService.complete(projectId, request);
+            return ResponseEntity.ok(Map.of(
+                "imageId", imageId,
+                "message", "Image uploaded successfully. Thumbnail is being processed.",
+                "thumbnailStatus", "PROCESSING"
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Upload failed: " + e.getMessage());
+        }
+    }
+
+    @Operation(summary = "이미지 대량 업로드", description = "여러 이미지(또는 zip 파일)를 한 번에 업로드하고 파일별 결과를 반환합니다.")
+    @PostMapping("/project/{projectId}/images/bulk")
+    public ResponseEntity<?> uploadImages(@PathVariable String projectId,
+                                          @RequestParam(value = "images", required = false) List<MultipartFile> images,
+                                          @RequestParam(value = "archive", required = false) MultipartFile archive) {
+        try {
+            List<BulkUploadResult> results = bulkUploadService.uploadImages(projectId, images, archive);
+            return ResponseEntity.ok(Map.of("results", results));
+        } catch (ArchiveLimitExceededException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body("Upload failed: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Upload failed: " + e.getMessage());
+        }
+    }
+
     @Operation(summary = "프로젝트 이미지 목록 조회", description = "특정 프로젝트의 모든 이미지 목록을 조회합니다.")
     @GetMapping("/project/{projectId}/images")
     public ResponseEntity<List<Image>> getImagesList(@PathVariable String projectId,
@@ -59,6 +132,25 @@ public class ImageUploadController {
         return ResponseEntity.ok(images);
     }
 
+    @Operation(summary = "프로젝트 이미지 커서 목록 조회", description = "커서 기반으로 프로젝트 이미지 목록을 조회합니다. (삭제된 이미지 제외)")
+    @GetMapping("/project/{projectId}/images/cursor")
+    public ResponseEntity<?> getImagesByCursor(@PathVariable String projectId,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "20") int size) {
+        try {
+            CursorPage<ImageSummary> page = imageService.getImagesByCursor(projectId, cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "프로젝트 통계 조회", description = "프로젝트의 이미지 수, 전체 용량, 썸네일 상태별 이미지 수를 조회합니다. (삭제된 이미지 제외)")
+    @GetMapping("/project/{projectId}/stats")
+    public ResponseEntity<ProjectStatsResponse> getProjectStats(@PathVariable String projectId) {
+        return ResponseEntity.ok(projectStatsService.getStats(projectId));
+    }
+
     @Operation(summary = "이미지 상세 조회", description = "이미지 ID로 특정 이미지를 조회합니다.")
     @GetMapping("/images/{id}")
     public ResponseEntity<Image> getImageById(@PathVariable Long id) {
@@ -66,6 +158,78 @@ public class ImageUploadController {
         return ResponseEntity.ok(image);
     }
 
+    @Operation(summary = "유사 이미지 조회", description = "같은 프로젝트에서 다시 인코딩되거나 크기만 바뀐 사본(지각 해시 해밍 거리 maxDistance 이하)을 거리순으로 조회합니다. 썸네일 생성이 끝난 이미지만 대상입니다.")
+    @GetMapping("/images/{id}/near-duplicates")
+    public ResponseEntity<List<NearDuplicate>> getNearDuplicates(@PathVariable Long id,
+                                                                 @RequestParam(required = false) Integer maxDistance) {
+        return ResponseEntity.ok(imageService.getNearDuplicates(id, maxDistance));
+    }
+
+    @Operation(summary = "이미지 렌디션 목록 조회", description = "이미지의 크기별 썸네일 렌디션 정보를 조회합니다.")
+    @GetMapping("/images/{id}/renditions")
+    public ResponseEntity<List<ImageRendition>> getRenditions(@PathVariable Long id) {
+        return ResponseEntity.ok(imageService.getRenditions(id));
+    }
+
+    @Operation(summary = "썸네일 조회", description = "썸네일 렌디션 바이트를 반환합니다. (기본: 대표 렌디션, Range/ETag 지원)")
+    @GetMapping("/images/{id}/thumbnail")
+    public ResponseEntity<StreamingResponseBody> getThumbnail(@PathVariable Long id,
+                                                              @RequestParam(required = false) String rendition,
+                                                              @RequestHeader HttpHeaders headers) throws IOException {
+        Image image = imageService.getImageById(id);
+        if (isDeleted(image)) {
+            return ResponseEntity.notFound().build();
+        }
+        ImageRendition imageRendition = imageService.getRendition(id, rendition);
+        String eTag = "\"" + image.getFileHash() + "-" + imageRendition.getName() + "\"";
+        return imageDownloadService.serveThumbnail(imageRendition.getFileName(), eTag,
+            mediaTypeOf(imageRendition.getFileName()), headers);
+    }
+
+    @Operation(summary = "이미지 변환 조회", description = "요청한 크기/맞춤/포맷으로 변환한 이미지를 반환합니다. 처음 요청 시 생성하여 저장하고 이후에는 저장된 결과를 제공합니다. (w, h 는 허용된 값만 가능)")
+    @GetMapping("/images/{id}/render")
+    public ResponseEntity<?> render(@PathVariable Long id,
+                                    @RequestParam(required = false) Integer w,
+                                    @RequestParam(required = false) Integer h,
+                                    @RequestParam(required = false) String fit,
+                                    @RequestParam(required = false) String fmt,
+                                    @RequestHeader HttpHeaders headers) throws IOException {
+        RenderSpec spec;
+        try {
+            spec = imageRenderService.resolve(w, h, fit, fmt);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        Image image = imageService.getImageById(id);
+        if (isDeleted(image)) {
+            return ResponseEntity.notFound().build();
+        }
+        String eTag = "\"" + image.getFileHash() + "-" + spec.width() + "x" + spec.height() + "-"
+            + spec.fit().name().toLowerCase() + "-" + spec.format() + "\"";
+        try {
+            return imageDownloadService.serveRendered(eTag, MediaType.parseMediaType(spec.contentType()), headers,
+                () -> imageRenderService.render(image, spec));
+        } catch (RenderCapacityExceededException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "원본 이미지 조회", description = "원본 이미지를 스트리밍합니다. (Range/ETag 지원)")
+    @GetMapping("/images/{id}/content")
+    public ResponseEntity<StreamingResponseBody> getContent(@PathVariable Long id,
+                                                            @RequestHeader HttpHeaders headers) throws IOException {
+        Image image = imageService.getImageById(id);
+        if (isDeleted(image)) {
+            return ResponseEntity.notFound().build();
+        }
+        // 파일 해시를 강한 ETag 로 사용하여 If-None-Match 는 MinIO 조회 없이 304 응답
+        String eTag = "\"" + image.getFileHash() + "\"";
+        return imageDownloadService.serveOriginal(image.getFileName(), image.getFileSize(), eTag,
+            mediaTypeOf(image.getOriginalFileName()), headers);
+    }
+
     @Operation(summary = "이미지 수정", description = "기존 이미지를 새로운 이미지로 교체합니다.")
     @PatchMapping("/images/{id}")
     public ResponseEntity<?> updateImageById(@PathVariable Long id, @RequestParam("image") MultipartFile image) {
@@ -90,4 +254,13 @@ public class ImageUploadController {
         imageService.deleteImage(id);
         return ResponseEntity.ok("Image with ID: " + id + " deleted successfully");
     }
+
+    // 삭제된(del_yn = 'Y') 이미지는 바이트를 제공하지 않음
+    private boolean isDeleted(Image image) {
+        return "Y".equals(image.getDelYn());
+    }
+
+    private MediaType mediaTypeOf(String fileName) {
+        return MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
 }
@@ -0,0 +1,86 @@
+package com.first.image.upload.controller;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.first.image.upload.service.ImageService;
+import com.first.image.upload.service.ProjectRateLimiter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+// 쓰기 요청을 projectId 별 쿼터로 먼저 걸러냄 (멀티파트 본문을 읽기 전에 429 + Retry-After 로 거절)
+@Component
+@RequiredArgsConstructor
+public class ProjectAdmissionFilter extends OncePerRequestFilter {
+
+    private static final AntPathMatcher PATHS = new AntPathMatcher();
+
+    // 업로드, 직접 업로드 슬롯/완료, 대량 업로드
+    private static final String PROJECT_WRITE = "/project/{projectId}/images/**";
+
+    private static final String IMAGE_PATCH = "/images/{id}";
+
+    private final ProjectRateLimiter rateLimiter;
+
+    private final ImageService imageService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimiter.isEnabled()
+                || !("POST".equals(request.getMethod()) || "PATCH".equals(request.getMethod()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String projectId = projectOf(request);
+        if (projectId == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        ProjectRateLimiter.Decision decision = rateLimiter.tryAcquire(projectId, Math.max(0, request.getContentLengthLong()));
+        if (!decision.admitted()) {
+            long retryAfterSeconds = Math.max(1, (decision.retryAfter().toMillis() + 999) / 1000);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write("Rate limit exceeded for project " + projectId + " (" + decision.limit() + ")");
+            return;
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    // 수정 요청은 경로에 프로젝트가 없으므로 이미지 메타데이터(캐시)에서 확인
+    private String projectOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if ("POST".equals(request.getMethod())) {
+            return PATHS.match(PROJECT_WRITE, path)
+                    ? PATHS.extractUriTemplateVariables(PROJECT_WRITE, path).get("projectId")
+                    : null;
+        }
+        if (PATHS.match(IMAGE_PATCH, path)) {
+            try {
+                return imageService.getImageById(Long.parseLong(PATHS.extractUriTemplateVariables(IMAGE_PATCH, path).get("id")))
+                        .getProjectId();
+            } catch (RuntimeException e) {
+                // 없는 이미지 / 잘못된 ID 는 컨트롤러가 응답
+                return null;
+            }
+        }
+        return null;
+    }
+}
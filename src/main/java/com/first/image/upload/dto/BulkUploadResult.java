@@ -0,0 +1,23 @@
+package com.first.image.upload.dto;
+
+// 대량 업로드 파일별 처리 결과
+public record BulkUploadResult(String originalFileName, Status status, Long imageId, String fileName, String error) {
+
+    public enum Status {
+        CREATED,    // 새로 저장됨
+        DUPLICATE,  // 같은 해시의 이미지가 이미 있어 기존 파일 반환
+        FAILED      // 처리 실패
+    }
+
+    public static BulkUploadResult created(String originalFileName, Long imageId, String fileName) {
+        return new BulkUploadResult(originalFileName, Status.CREATED, imageId, fileName, null);
+    }
+
+    public static BulkUploadResult duplicate(String originalFileName, Long imageId, String fileName) {
+        return new BulkUploadResult(originalFileName, Status.DUPLICATE, imageId, fileName, null);
+    }
+
+    public static BulkUploadResult failed(String originalFileName, String error) {
+        return new BulkUploadResult(originalFileName, Status.FAILED, null, null, error);
+    }
+}
@@ -0,0 +1,7 @@
+package com.first.image.upload.dto;
+
+import java.util.List;
+
+// 커서 기반 페이지 (nextCursor 가 null 이면 마지막 페이지)
+public record CursorPage<T>(List<T> items, String nextCursor) {
+}
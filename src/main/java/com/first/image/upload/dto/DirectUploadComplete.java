@@ -0,0 +1,5 @@
+package com.first.image.upload.dto;
+
+// 직접 업로드 완료 알림 (슬롯 요청 때와 같은 값을 전달)
+public record DirectUploadComplete(String fileName, String originalFileName, long fileSize, String sha256) {
+}
@@ -0,0 +1,5 @@
+package com.first.image.upload.dto;
+
+// 직접 업로드 슬롯 요청 (sha256 은 16진수 문자열)
+public record DirectUploadRequest(String originalFileName, String contentType, long fileSize, String sha256) {
+}
@@ -0,0 +1,19 @@
+package com.first.image.upload.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+// 직접 업로드 슬롯 응답: DUPLICATE 이면 업로드 없이 기존 파일명(fileName)을 사용
+public record DirectUploadSlot(Status status, String fileName, String uploadUrl,
+                               Map<String, List<String>> headers, Instant expiresAt) {
+
+    public enum Status {
+        UPLOAD_REQUIRED,
+        DUPLICATE
+    }
+
+    public static DirectUploadSlot duplicate(String fileName) {
+        return new DirectUploadSlot(Status.DUPLICATE, fileName, null, null, null);
+    }
+}
@@ -0,0 +1,10 @@
+package com.first.image.upload.dto;
+
+import java.time.LocalDateTime;
+
+import com.first.image.upload.entity.ThumbnailStatus;
+
+// 목록 조회용 슬림 프로젝션 (엔티티 전체를 읽지 않음)
+public record ImageSummary(Long id, String originalFileName, String fileName, String thumbnailFileName,
+                           ThumbnailStatus thumbnailStatus, Long fileSize, LocalDateTime createdAt) {
+}
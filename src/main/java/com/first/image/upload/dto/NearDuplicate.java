@@ -0,0 +1,5 @@
+package com.first.image.upload.dto;
+
+// 지각 해시가 가까운 이미지 (distance: 64비트 해시의 해밍 거리)
+public record NearDuplicate(Long imageId, int distance) {
+}
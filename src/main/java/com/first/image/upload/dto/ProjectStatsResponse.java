@@ -0,0 +1,11 @@
+package com.first.image.upload.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import com.first.image.upload.entity.ThumbnailStatus;
+
+// 프로젝트 통계 (삭제된 이미지 제외, 썸네일 상태별 이미지 수 포함)
+public record ProjectStatsResponse(String projectId, long imageCount, long totalBytes,
+                                   Map<ThumbnailStatus, Long> thumbnails, LocalDateTime reconciledAt) {
+}
@@ -0,0 +1,5 @@
+package com.first.image.upload.dto;
+
+// 선점한 썸네일 작업 (프로젝트별 공정 큐잉에 사용)
+public record ThumbnailJob(Long imageId, String projectId) {
+}
@@ -0,0 +1,59 @@
+package com.first.image.upload.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+// 내용 주소 저장 모드의 원본 객체 (SHA-256 키, 여러 프로젝트의 이미지가 공유)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Builder
+@Table(name = "blobs", indexes = {
+    @Index(name = "idx_blob_hash", columnList = "fileHash", unique = true),
+    @Index(name = "idx_blob_file_name", columnList = "fileName", unique = true)
+})
+public class Blob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String fileHash;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    private Long fileSize;
+
+    // 이 블롭을 가리키는 (삭제되지 않은) 이미지 행 수
+    @Column(nullable = false)
+    @Builder.Default
+    private long refCount = 0;
+
+    // MinIO 업로드 완료 여부 (false 면 참조하는 쪽이 다시 업로드)
+    @Column(nullable = false)
+    @Builder.Default
+    private boolean stored = false;
+
+    // 참조가 없어 MinIO 객체를 지우는 중 (삭제 I/O 는 트랜잭션 밖에서 하므로 그동안 새 참조를 막음)
+    @Column(nullable = false)
+    @Builder.Default
+    private boolean deleting = false;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
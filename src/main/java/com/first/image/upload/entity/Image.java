@@ -5,16 +5,29 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.first.image.upload.service.ImageMetadataListener;
+import com.first.image.upload.service.NearDuplicateListener;
+import com.first.image.upload.service.ProjectStatsBuffer;
+import com.first.image.upload.service.ProjectStatsListener;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
 @Builder
+@EntityListeners({ImageMetadataListener.class, ProjectStatsListener.class, NearDuplicateListener.class})
 @Table(name = "images", indexes = {
-    @Index(name = "idx_project_hash", columnList = "id, fileHash", unique = true) // 중복 방지
+    @Index(name = "idx_project_hash", columnList = "projectId, fileHash", unique = true), // 프로젝트 내 중복 방지 (노드 간에도 DB 가 보장)
+    @Index(name = "idx_project_cursor", columnList = "projectId, delYn, id"), // 커서 기반 목록 조회
+    @Index(name = "idx_thumbnail_queue", columnList = "thumbnailStatus, thumbnailLeaseUntil"), // 썸네일 작업 폴링
+    @Index(name = "idx_file_name", columnList = "fileName"), // 공유 블롭 / 참조 여부 조회
+    @Index(name = "idx_project_pre_hash", columnList = "projectId, preHash") // 사전 해시로 중복 후보 조회
 })
 public class Image {
     
@@ -32,7 +45,16 @@ public class Image {
     private String fileName;
 
     @Column(nullable = false)
-    private String fileHash; // SHA-256 해시
+    private String fileHash; // 내용 해시 (hashAlgorithm 으로 계산)
+
+    // 알고리즘을 바꾸더라도 기존 행을 구분해 재계산할 수 있도록 행마다 기록
+    @Column(nullable = false)
+    @Builder.Default
+    private String hashAlgorithm = "SHA-256";
+
+    private String preHash; // 크기 + 앞/뒤 일부의 xxHash64 (사전 해시 사용 시)
+
+    private Long perceptualHash; // 지각 해시 dHash (썸네일 생성 시 계산, 유사 이미지 검색용)
     
     private String thumbnailFileName;
     
@@ -45,6 +67,11 @@ public class Image {
     @Builder.Default
     private int retryCount = 0;
 
+    // 썸네일 작업 리스 (작업을 가져간 노드와 만료 시각, 만료되면 다른 노드가 다시 가져감)
+    private String thumbnailLeaseOwner;
+
+    private LocalDateTime thumbnailLeaseUntil;
+
     @Column(nullable = false)
     @Builder.Default
     private String delYn = "N";
@@ -55,6 +82,13 @@ public class Image {
     private LocalDateTime createdAt;
     
     private LocalDateTime updatedAt;
+
+    // 로드(또는 마지막 저장) 시점의 통계 기여분, 저장 시 차이만 프로젝트 통계에 더함
+    @Transient
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private ProjectStatsBuffer.Contribution statsSnapshot;
     
 @PrePersist
     protected void onCreate() {
@@ -0,0 +1,52 @@
+package com.first.image.upload.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Builder
+@Table(name = "image_renditions", indexes = {
+    @Index(name = "idx_rendition_image", columnList = "imageId, name", unique = true)
+})
+public class ImageRendition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long imageId;
+
+    @Column(nullable = false)
+    private String name; // 설정된 렌디션 이름 (thumb, medium, large ...)
+
+    @Column(nullable = false)
+    private String fileName;
+
+    @Column(nullable = false)
+    private String format;
+
+    private int width;
+
+    private int height;
+
+    private Long fileSize;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
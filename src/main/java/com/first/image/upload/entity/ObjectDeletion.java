@@ -0,0 +1,52 @@
+package com.first.image.upload.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+// MinIO 객체 삭제 대기열 (요청 경로에서는 기록만 하고 백그라운드에서 일괄 삭제)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Builder
+@Table(name = "object_deletions", indexes = {
+    @Index(name = "idx_deletion_next_attempt", columnList = "nextAttemptAt"),
+    @Index(name = "idx_deletion_file_name", columnList = "fileName")
+})
+public class ObjectDeletion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    @Column(nullable = false)
+    private String reason; // DELETE, PATCH, DUPLICATE, ORPHAN ...
+
+    @Column(nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.first.image.upload.entity;
+
+public enum OutboxEventType {
+    THUMBNAIL_REQUESTED,  // 이미지 행과 함께 기록, 커밋 후 워커 풀로 전달
+    UPLOAD_STAGED         // 객체 업로드 전에 기록, 행이 등록되면 삭제되고 만료되면 객체를 정리
+}
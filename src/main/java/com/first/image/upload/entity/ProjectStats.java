@@ -0,0 +1,47 @@
+package com.first.image.upload.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+// 프로젝트별 집계 (삭제되지 않은 이미지 기준), 변경분을 메모리에 모았다가 주기적으로 더함
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Builder
+@Table(name = "project_stats")
+public class ProjectStats {
+
+    @Id
+    private String projectId;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private long imageCount = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private long totalBytes = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private long processingCount = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private long readyCount = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private long failedCount = 0;
+
+    // 마지막으로 images 테이블에서 다시 집계한 시각
+    private LocalDateTime reconciledAt;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,42 @@
+package com.first.image.upload.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.first.image.upload.entity.Blob;
+
+import jakarta.persistence.LockModeType;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BlobRepository extends JpaRepository<Blob, Long> {
+
+    // 참조 수 변경과 삭제는 행 잠금으로 직렬화
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Blob b WHERE b.fileHash = :fileHash")
+    Optional<Blob> lockByFileHash(@Param("fileHash") String fileHash);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Blob b WHERE b.fileName = :fileName")
+    Optional<Blob> lockByFileName(@Param("fileName") String fileName);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Blob b WHERE b.fileName IN :fileNames ORDER BY b.id")
+    List<Blob> lockByFileNameIn(@Param("fileNames") Collection<String> fileNames);
+
+    // 업로드 완료 표시
+    @Modifying
+    @Query("UPDATE Blob b SET b.stored = true WHERE b.fileHash = :fileHash")
+    int markStored(@Param("fileHash") String fileHash);
+
+    // 고아 객체 판별용
+    @Query("SELECT b.fileName FROM Blob b WHERE b.fileName IN :fileNames")
+    List<String> findExistingFileNames(@Param("fileNames") Collection<String> fileNames);
+}
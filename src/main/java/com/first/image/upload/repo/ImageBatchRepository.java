@@ -0,0 +1,44 @@
+package com.first.image.upload.repo;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.first.image.upload.entity.Image;
+import com.first.image.upload.entity.ThumbnailStatus;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+
+// IDENTITY 전략에서는 Hibernate 배치 insert 가 꺼지므로 JDBC 배치로 직접 저장
+@Repository
+@RequiredArgsConstructor
+public class ImageBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO images"
+            + " (project_id, original_file_name, file_name, file_hash, hash_algorithm, pre_hash, file_size,"
+            + " thumbnail_status, retry_count, del_yn, created_at)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, 'N', ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 썸네일 리스 없이 저장하므로 폴러가 워커 여유만큼 가져가 처리
+    @Transactional
+    public void insertAll(List<Image> images) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, images, images.size(), (ps, image) -> {
+            ps.setString(1, image.getProjectId());
+            ps.setString(2, image.getOriginalFileName());
+            ps.setString(3, image.getFileName());
+            ps.setString(4, image.getFileHash());
+            ps.setString(5, image.getHashAlgorithm());
+            ps.setString(6, image.getPreHash());
+            ps.setObject(7, image.getFileSize());
+            ps.setString(8, ThumbnailStatus.PROCESSING.name());
+            ps.setTimestamp(9, now);
+        });
+    }
+}
@@ -0,0 +1,31 @@
+package com.first.image.upload.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.first.image.upload.entity.ImageRendition;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ImageRenditionRepository extends JpaRepository<ImageRendition, Long> {
+
+    // 이미지별 렌디션 목록 조회
+    List<ImageRendition> findByImageId(Long imageId);
+
+    // 고아 객체 판별용: 렌디션이 참조하는 파일명
+    @Query("SELECT r.fileName FROM ImageRendition r WHERE r.fileName IN :fileNames")
+    List<String> findReferencedFileNames(@Param("fileNames") Collection<String> fileNames);
+
+    // 이름으로 특정 렌디션 조회
+    Optional<ImageRendition> findByImageIdAndName(Long imageId, String name);
+
+    // 같은 원본(블롭)을 공유하며 썸네일이 완료된 다른 이미지 하나의 렌디션
+    @Query("SELECT r FROM ImageRendition r WHERE r.imageId = (SELECT MIN(i.id) FROM Image i"
+            + " WHERE i.fileName = :fileName AND i.id <> :imageId AND i.delYn = 'N' AND i.thumbnailStatus = 'READY')")
+    List<ImageRendition> findSharedRenditions(@Param("fileName") String fileName, @Param("imageId") Long imageId);
+}
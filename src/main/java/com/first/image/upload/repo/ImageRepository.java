@@ -3,14 +3,18 @@ package com.first.image.upload.repo;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.first.image.upload.dto.ImageSummary;
+import com.first.image.upload.dto.ThumbnailJob;
 import com.first.image.upload.entity.Image;
 import com.first.image.upload.entity.ThumbnailStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,10 +36,35 @@ public interface ImageRepository extends JpaRepository<Image, Long> {
     // 파일명으로 조회
     Optional<Image> findByFileName(String fileName);
     
-    // 실패한 썸네일 재시도 대상 조회 (3회 미만)
-    @Query("SELECT i FROM Image i WHERE i.thumbnailStatus = 'PROCESSING' AND i.retryCount < 3 AND i.createdAt < :beforeTime")
-    List<Image> findRetryableImages(@Param("beforeTime") LocalDateTime beforeTime);
-    
+    // 썸네일 작업 선점 대상 조회 (다른 노드가 잠근 행은 건너뜀, MySQL 8 / H2 공통 문법)
+    // 재시도 대기 중인 작업은 thumbnail_lease_until 에 다음 시도 시각이 들어 있으므로 그 순서대로 가져감
+    @Query(value = "SELECT id FROM images WHERE thumbnail_status = 'PROCESSING' AND del_yn = 'N' AND retry_count < :maxRetry"
+            + " AND (thumbnail_lease_until IS NULL OR thumbnail_lease_until < :now)"
+            + " ORDER BY thumbnail_lease_until, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockClaimableThumbnailJobs(@Param("maxRetry") int maxRetry, @Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // 선점한 작업에 리스 기록
+    @Modifying
+    @Query("UPDATE Image i SET i.thumbnailLeaseOwner = :owner, i.thumbnailLeaseUntil = :until WHERE i.id IN :ids")
+    int leaseThumbnailJobs(@Param("ids") List<Long> ids, @Param("owner") String owner, @Param("until") LocalDateTime until);
+
+    @Query("SELECT new com.first.image.upload.dto.ThumbnailJob(i.id, i.projectId) FROM Image i WHERE i.id IN :ids ORDER BY i.thumbnailLeaseUntil, i.id")
+    List<ThumbnailJob> findThumbnailJobs(@Param("ids") List<Long> ids);
+
+    // 재시작한 노드가 이전에 잡고 있던 리스 해제
+    @Modifying
+    @Query("UPDATE Image i SET i.thumbnailLeaseUntil = NULL WHERE i.thumbnailLeaseOwner = :owner AND i.thumbnailStatus = 'PROCESSING'")
+    int releaseThumbnailLeases(@Param("owner") String owner);
+
+    // 삭제된 행 복구 선점 (동시에 되살리면 하나만 1 을 반환, 나머지 필드는 선점한 쪽이 이어서 저장)
+    @Modifying
+    @Query("UPDATE Image i SET i.fileName = :fileName, i.updatedAt = :now WHERE i.id = :id AND i.delYn = 'Y'")
+    int claimDeleted(@Param("id") Long id, @Param("fileName") String fileName, @Param("now") LocalDateTime now);
+
+    // 영속성 컨텍스트에 남은 이전 인스턴스가 아닌 DB 값
+    @Query("SELECT i.fileName FROM Image i WHERE i.id = :id")
+    String findFileNameById(@Param("id") Long id);
+
     // 프로젝트별 이미지 수 조회
     long countByProjectId(String projectId);
     
@@ -43,14 +72,40 @@ public interface ImageRepository extends JpaRepository<Image, Long> {
     @Query("SELECT i FROM Image i WHERE i.createdAt BETWEEN :startDate AND :endDate")
     List<Image> findByCreatedAtBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
-    // 커서 기반 페이징 (무한 스크롤용)
-    @Query("SELECT i FROM Image i WHERE i.projectId = :projectId AND i.id > :cursor ORDER BY i.id ASC")
-    List<Image> findByProjectIdWithCursor(@Param("projectId") String projectId, @Param("cursor") Long cursor, Pageable pageable);
+    // 커서 기반 페이징 (무한 스크롤용), (projectId, delYn, id) 인덱스 범위 스캔
+    @Query("SELECT new com.first.image.upload.dto.ImageSummary(i.id, i.originalFileName, i.fileName, i.thumbnailFileName, i.thumbnailStatus, i.fileSize, i.createdAt)"
+            + " FROM Image i WHERE i.projectId = :projectId AND i.delYn = 'N' AND i.id > :cursor ORDER BY i.id ASC")
+    List<ImageSummary> findByProjectIdWithCursor(@Param("projectId") String projectId, @Param("cursor") Long cursor, Pageable pageable);
     
     // 첫 페이지 조회 (커서 기반)
-    @Query("SELECT i FROM Image i WHERE i.projectId = :projectId ORDER BY i.id ASC")
-    List<Image> findFirstPageByProjectId(@Param("projectId") String projectId, Pageable pageable);
+    @Query("SELECT new com.first.image.upload.dto.ImageSummary(i.id, i.originalFileName, i.fileName, i.thumbnailFileName, i.thumbnailStatus, i.fileSize, i.createdAt)"
+            + " FROM Image i WHERE i.projectId = :projectId AND i.delYn = 'N' ORDER BY i.id ASC")
+    List<ImageSummary> findFirstPageByProjectId(@Param("projectId") String projectId, Pageable pageable);
 
     // 중복 검사용
     Optional<Image> findByProjectIdAndFileHash(String projectId, String fileHash);
+
+    // 사전 해시가 같은 중복 후보 (없으면 전체 해시 조회 생략)
+    List<Image> findByProjectIdAndPreHash(String projectId, String preHash);
+
+    // 대량 업로드 중복 검사용 (IN 1회)
+    List<Image> findByProjectIdAndFileHashIn(String projectId, Collection<String> fileHashes);
+
+    // 고아 객체 판별용: 살아있는 이미지가 참조하는 파일명
+    @Query("SELECT i.fileName FROM Image i WHERE i.delYn = 'N' AND i.fileName IN :fileNames")
+    List<String> findLiveFileNames(@Param("fileNames") Collection<String> fileNames);
+
+    // 요청 시점 렌디션 판별용: 살아있는 이미지의 내용 해시
+    @Query("SELECT DISTINCT i.fileHash FROM Image i WHERE i.delYn = 'N' AND i.fileHash IN :fileHashes")
+    List<String> findLiveFileHashes(@Param("fileHashes") Collection<String> fileHashes);
+
+    // 배치 insert 후 ID 조회용
+    List<Image> findByFileNameIn(Collection<String> fileNames);
+
+    // 유사 이미지 인덱스 구성용 (idx_project_cursor 범위 스캔)
+    @Query("SELECT i.id, i.perceptualHash FROM Image i WHERE i.projectId = :projectId AND i.delYn = 'N' AND i.perceptualHash IS NOT NULL")
+    List<Object[]> findPerceptualHashes(@Param("projectId") String projectId);
+
+    // 같은 블롭을 공유하는 이미지의 지각 해시 (렌디션을 재사용할 때 해시도 재사용)
+    Optional<Image> findFirstByFileNameAndIdNotAndPerceptualHashIsNotNull(String fileName, Long id);
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.first.image.upload.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.first.image.upload.entity.ObjectDeletion;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ObjectDeletionRepository extends JpaRepository<ObjectDeletion, Long> {
+
+    // 삭제 대상 선점 (다른 노드가 잠근 행은 건너뜀, MySQL 8 / H2 공통 문법)
+    @Query(value = "SELECT id FROM object_deletions WHERE next_attempt_at <= :now"
+            + " ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockDueDeletions(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // 선점한 행은 리스 만료 전까지 다른 노드가 가져가지 않음
+    @Modifying
+    @Query("UPDATE ObjectDeletion d SET d.nextAttemptAt = :until WHERE d.id IN :ids")
+    int leaseDeletions(@Param("ids") List<Long> ids, @Param("until") LocalDateTime until);
+
+    // 이미 대기열에 있는 파일명 조회 (고아 객체 중복 등록 방지)
+    @Query("SELECT d.fileName FROM ObjectDeletion d WHERE d.fileName IN :fileNames")
+    List<String> findQueuedFileNames(@Param("fileNames") Collection<String> fileNames);
+}
@@ -0,0 +1,34 @@
+package com.first.image.upload.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.first.image.upload.entity.OutboxEvent;
+import com.first.image.upload.entity.OutboxEventType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // 실행할 이벤트 선점 (다른 노드가 잠근 행은 건너뜀, MySQL 8 / H2 공통 문법)
+    @Query(value = "SELECT id FROM outbox_events WHERE next_attempt_at <= :now"
+            + " ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockDueEvents(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.nextAttemptAt = :until WHERE e.id IN :ids")
+    int leaseEvents(@Param("ids") List<Long> ids, @Param("until") LocalDateTime until);
+
+    // 삭제한 쪽만 이벤트를 실행 (커밋 직후 전달과 릴레이가 겹치지 않게 함)
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id = :id")
+    int deleteEvent(@Param("id") Long id);
+
+    Optional<OutboxEvent> findFirstByTypeAndFileName(OutboxEventType type, String fileName);
+}
@@ -0,0 +1,48 @@
+package com.first.image.upload.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.first.image.upload.entity.ProjectStats;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProjectStatsRepository extends JpaRepository<ProjectStats, String> {
+
+    // 변경분 더하기 (행이 없으면 0 을 반환하므로 새로 저장)
+    @Modifying
+    @Query("UPDATE ProjectStats s SET s.imageCount = s.imageCount + :images, s.totalBytes = s.totalBytes + :bytes,"
+            + " s.processingCount = s.processingCount + :processing, s.readyCount = s.readyCount + :ready,"
+            + " s.failedCount = s.failedCount + :failed, s.updatedAt = :now WHERE s.projectId = :projectId")
+    int addDeltas(@Param("projectId") String projectId, @Param("images") long images, @Param("bytes") long bytes,
+                  @Param("processing") long processing, @Param("ready") long ready, @Param("failed") long failed,
+                  @Param("now") LocalDateTime now);
+
+    // 재집계 결과 쓰기: 집계 뒤 어느 노드든 변경분을 반영했으면 0 (다음 재집계로 미룸)
+    @Modifying
+    @Query("UPDATE ProjectStats s SET s.imageCount = :images, s.totalBytes = :bytes, s.processingCount = :processing,"
+            + " s.readyCount = :ready, s.failedCount = :failed, s.reconciledAt = :now"
+            + " WHERE s.projectId = :projectId AND s.updatedAt = :seenUpdatedAt")
+    int overwrite(@Param("projectId") String projectId, @Param("images") long images, @Param("bytes") long bytes,
+                  @Param("processing") long processing, @Param("ready") long ready, @Param("failed") long failed,
+                  @Param("now") LocalDateTime now, @Param("seenUpdatedAt") LocalDateTime seenUpdatedAt);
+
+    // 썸네일 상태별 합계 (메트릭용, images 스캔 대신 프로젝트 행만 더함)
+    @Query("SELECT COALESCE(SUM(s.processingCount), 0), COALESCE(SUM(s.readyCount), 0), COALESCE(SUM(s.failedCount), 0)"
+            + " FROM ProjectStats s")
+    List<Object[]> sumThumbnailCounts();
+
+    // 재집계용: 프로젝트 x 썸네일 상태별 건수와 크기 합
+    @Query("SELECT i.projectId, i.thumbnailStatus, COUNT(i), COALESCE(SUM(i.fileSize), 0) FROM Image i"
+            + " WHERE i.delYn = 'N' GROUP BY i.projectId, i.thumbnailStatus")
+    List<Object[]> aggregateLiveImages();
+
+    // 재집계 대상 판별용: 프로젝트의 마지막 이미지 변경 시각 (삭제된 행 포함)
+    @Query("SELECT MAX(COALESCE(i.updatedAt, i.createdAt)) FROM Image i WHERE i.projectId = :projectId")
+    LocalDateTime findLastImageChange(@Param("projectId") String projectId);
+}
@@ -0,0 +1,11 @@
+package com.first.image.upload.service;
+
+import java.io.IOException;
+
+// zip 압축 해제 한도 초과 (항목 수, 항목 크기, 전체 해제 크기)
+public class ArchiveLimitExceededException extends IOException {
+
+    public ArchiveLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,174 @@
+package com.first.image.upload.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.first.image.upload.dto.NearDuplicate;
+
+// 해밍 거리 BK-트리: 자식은 부모와의 거리별로 매달고, 검색은 삼각 부등식으로 |d - 최대 거리| 범위의 가지만 방문
+// 같은 해시의 이미지는 한 노드에 모으고, 삭제된 노드는 길잡이로 남겨 두다가 절반을 넘으면 다시 구성
+final class BkTree {
+
+    private static final int MIN_REBUILD_NODES = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Long> hashById = new HashMap<>();
+
+    private Node root;
+
+    private int nodes;
+
+    private int emptyNodes;
+
+    private static final class Node {
+
+        private final long hash;
+
+        private final Set<Long> imageIds = new HashSet<>(2);
+
+        private final Map<Integer, Node> children = new HashMap<>(4);
+
+        Node(long hash) {
+            this.hash = hash;
+        }
+    }
+
+    // 해시가 바뀐 이미지는 이전 위치에서 빼고 다시 넣음
+    void put(long imageId, long hash) {
+        lock.writeLock().lock();
+        try {
+            Long previous = hashById.put(imageId, hash);
+            if (previous != null) {
+                if (previous == hash) {
+                    return;
+                }
+                detach(imageId, previous);
+            }
+            insert(imageId, hash);
+            // 해시가 바뀌며 남은 빈 노드도 삭제와 같이 정리
+            rebuildIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long imageId) {
+        lock.writeLock().lock();
+        try {
+            Long previous = hashById.remove(imageId);
+            if (previous != null) {
+                detach(imageId, previous);
+                rebuildIfSparse();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 거리순 (같으면 이미지 ID 순)
+    List<NearDuplicate> search(long hash, int maxDistance) {
+        List<NearDuplicate> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (root == null) {
+                return matches;
+            }
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(root);
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                int distance = PerceptualHash.distance(node.hash, hash);
+                if (distance <= maxDistance) {
+                    for (Long imageId : node.imageIds) {
+                        matches.add(new NearDuplicate(imageId, distance));
+                    }
+                }
+                for (int d = Math.max(0, distance - maxDistance); d <= distance + maxDistance; d++) {
+                    Node child = node.children.get(d);
+                    if (child != null) {
+                        pending.push(child);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(Comparator.comparingInt(NearDuplicate::distance).thenComparing(NearDuplicate::imageId));
+        return matches;
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return hashById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(long imageId, long hash) {
+        if (root == null) {
+            root = new Node(hash);
+            nodes++;
+            root.imageIds.add(imageId);
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = PerceptualHash.distance(node.hash, hash);
+            if (distance == 0) {
+                if (node.imageIds.isEmpty()) {
+                    emptyNodes--;
+                }
+                node.imageIds.add(imageId);
+                return;
+            }
+            Node child = node.children.get(distance);
+            if (child == null) {
+                child = new Node(hash);
+                nodes++;
+                child.imageIds.add(imageId);
+                node.children.put(distance, child);
+                return;
+            }
+            node = child;
+        }
+    }
+
+    private void detach(long imageId, long hash) {
+        Node node = root;
+        while (node != null) {
+            int distance = PerceptualHash.distance(node.hash, hash);
+            if (distance == 0) {
+                if (node.imageIds.remove(imageId) && node.imageIds.isEmpty()) {
+                    emptyNodes++;
+                }
+                return;
+            }
+            node = node.children.get(distance);
+        }
+    }
+
+    private void rebuildIfSparse() {
+        if (nodes >= MIN_REBUILD_NODES && emptyNodes * 2 > nodes) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        root = null;
+        nodes = 0;
+        emptyNodes = 0;
+        hashById.forEach(this::insert);
+    }
+}
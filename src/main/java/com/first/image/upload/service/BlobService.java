@@ -0,0 +1,191 @@
+package com.first.image.upload.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.first.image.upload.entity.Blob;
+import com.first.image.upload.repo.BlobRepository;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+// 내용 주소 저장: 원본을 SHA-256 키 하나로 저장하고 이미지 행들이 참조 수로 공유
+// 참조 수 변경과 삭제 표시는 블롭 행 잠금으로 직렬화하여, 삭제 중인 블롭을 새 업로드가 참조하지 않게 함
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BlobService {
+
+    private static final String BLOB_PREFIX = "blobs/";
+
+    // S3 DeleteObjects 요청당 최대 키 수
+    private static final int MAX_DELETE_KEYS = 1000;
+
+    private final BlobRepository blobRepository;
+
+    private final ObjectReclaimQueue objectReclaimQueue;
+
+    private final MinioService minioService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${storage.content-addressed.enabled:false}")
+    private boolean enabled;
+
+    public record Reference(String fileName, boolean uploadRequired) {
+    }
+
+    public record PurgeResult(Set<String> handled, Set<String> failed) {
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isBlob(String fileName) {
+        return fileName != null && fileName.startsWith(BLOB_PREFIX);
+    }
+
+    // blobs/{해시 앞 2자리}/{해시}.{확장자}
+    public String blobFileName(String fileHash, String originalFileName) {
+        String extension = "";
+        if (originalFileName != null && originalFileName.contains(".")) {
+            extension = originalFileName.substring(originalFileName.lastIndexOf("."));
+        }
+        return BLOB_PREFIX + fileHash.substring(0, 2) + "/" + fileHash + extension;
+    }
+
+    // 참조 수 +1 (처음 보는 내용이면 행을 만들고 업로드가 필요하다고 알림)
+    // 동시에 같은 내용이 처음 들어오면 한쪽은 유니크 충돌(DataIntegrityViolationException)이 나므로 호출자가 한 번 더 호출
+    // 객체를 지우는 중인 블롭은 참조하지 않음 (업로드가 삭제와 겹치면 새로 올린 객체가 지워질 수 있음)
+    @Transactional
+    public Reference reference(String fileHash, String fileName, long fileSize) {
+        Optional<Blob> existing = blobRepository.lockByFileHash(fileHash);
+        if (existing.isPresent()) {
+            Blob blob = existing.get();
+            if (blob.isDeleting()) {
+                throw new IllegalStateException("Blob is being deleted, retry later: " + blob.getFileName());
+            }
+            blob.setRefCount(blob.getRefCount() + 1);
+            return new Reference(blob.getFileName(), !blob.isStored());
+        }
+
+        blobRepository.saveAndFlush(Blob.builder()
+                .fileHash(fileHash)
+                .fileName(fileName)
+                .fileSize(fileSize)
+                .refCount(1)
+                .build());
+        return new Reference(fileName, true);
+    }
+
+    @Transactional
+    public void markStored(String fileHash) {
+        blobRepository.markStored(fileHash);
+    }
+
+    // 참조 수 -1, 마지막 참조였으면 삭제 대기열에 등록 (렌디션은 삭제 시 함께 정리)
+    @Transactional
+    public void release(String fileName) {
+        blobRepository.lockByFileName(fileName).ifPresentOrElse(blob -> {
+            blob.setRefCount(Math.max(0, blob.getRefCount() - 1));
+            if (blob.getRefCount() == 0) {
+                objectReclaimQueue.enqueue(List.of(fileName), "BLOB_RELEASED");
+            }
+        }, () -> log.warn("Released unknown blob: {}", fileName));
+    }
+
+    // 삭제 대기열의 키 중 블롭인 것 처리: 참조가 없는 행을 삭제 중으로 표시한 뒤 원본과 렌디션을 지우고 행 삭제
+    // MinIO 목록/삭제 호출 동안 행 잠금과 커넥션을 잡지 않도록 표시와 마무리만 짧은 트랜잭션으로 처리
+    // handled: 블롭으로 처리한 키 (다시 참조된 것 포함), failed: 다시 시도해야 하는 키 (행은 삭제 표시를 되돌림)
+    public PurgeResult purge(Collection<String> fileNames) {
+        List<String> blobFileNames = fileNames.stream().filter(this::isBlob).distinct().toList();
+        if (blobFileNames.isEmpty()) {
+            return new PurgeResult(Set.of(), Set.of());
+        }
+
+        // 1. 잠근 상태에서 참조 수를 다시 확인하고 삭제 중으로 표시 (이전 시도가 중간에 죽어 남은 표시도 다시 처리)
+        Set<String> handled = new HashSet<>();
+        List<String> released = transactionTemplate.execute(status -> {
+            List<String> marked = new ArrayList<>();
+            for (Blob blob : blobRepository.lockByFileNameIn(blobFileNames)) {
+                handled.add(blob.getFileName());
+                if (blob.getRefCount() == 0) {
+                    blob.setDeleting(true);
+                    marked.add(blob.getFileName());
+                }
+            }
+            return marked;
+        });
+        if (released.isEmpty()) {
+            return new PurgeResult(handled, Set.of());
+        }
+
+        // 2. 트랜잭션 밖에서 렌디션 목록 조회와 일괄 삭제 (실패한 요청의 키는 모두 실패로 처리)
+        Set<String> failedKeys = new HashSet<>();
+        List<String> keys = new ArrayList<>();
+        for (String fileName : released) {
+            try {
+                keys.addAll(renditionKeys(fileName));
+                keys.add(fileName);
+            } catch (RuntimeException e) {
+                log.warn("Failed to list renditions of blob {}", fileName, e);
+                failedKeys.add(fileName);
+            }
+        }
+        for (int i = 0; i < keys.size(); i += MAX_DELETE_KEYS) {
+            List<String> chunk = keys.subList(i, Math.min(keys.size(), i + MAX_DELETE_KEYS));
+            try {
+                failedKeys.addAll(minioService.deleteImages(chunk));
+            } catch (RuntimeException e) {
+                log.warn("DeleteObjects failed for {} blob keys", chunk.size(), e);
+                failedKeys.addAll(chunk);
+            }
+        }
+
+        // 3. 모두 지운 블롭은 행 삭제, 실패한 블롭은 표시를 되돌려 대기열 재시도에 맡김
+        Set<String> failed = new HashSet<>();
+        for (String fileName : released) {
+            String prefix = renditionPrefix(fileName);
+            if (failedKeys.stream().anyMatch(key -> key.equals(fileName) || key.startsWith(prefix))) {
+                failed.add(fileName);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Blob blob : blobRepository.lockByFileNameIn(released)) {
+                if (!failed.contains(blob.getFileName())) {
+                    blobRepository.delete(blob);
+                    continue;
+                }
+                blob.setDeleting(false);
+                // 원본은 지워지고 렌디션만 남은 경우: 다음 참조가 다시 업로드하게 함
+                if (!failedKeys.contains(blob.getFileName())) {
+                    blob.setStored(false);
+                }
+            }
+        });
+        return new PurgeResult(handled, failed);
+    }
+
+    // 렌디션 파일명은 원본 파일명에서 확장자를 뺀 뒤 "_이름.포맷" 을 붙인 형태
+    private List<String> renditionKeys(String fileName) {
+        List<String> keys = new ArrayList<>();
+        minioService.listImages(renditionPrefix(fileName), page -> page.stream().map(S3Object::key).forEach(keys::add));
+        return keys;
+    }
+
+    private String renditionPrefix(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return (dot > fileName.lastIndexOf('/') ? fileName.substring(0, dot) : fileName) + "_";
+    }
+}
@@ -0,0 +1,333 @@
+package com.first.image.upload.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.first.image.upload.dto.BulkUploadResult;
+import com.first.image.upload.entity.Image;
+import com.first.image.upload.repo.ImageBatchRepository;
+import com.first.image.upload.repo.ImageRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+// 여러 파일을 한 번에 업로드: 병렬 해시 → IN 1회 중복 조회 → 동시 업로드 → JDBC 배치 저장
+@Slf4j
+@Service
+public class BulkUploadService {
+
+    private final ImageRepository imageRepository;
+
+    private final ImageBatchRepository imageBatchRepository;
+
+    private final MinioService minioService;
+
+    private final ContentHasher contentHasher;
+
+    private final ImageService imageService;
+
+    private final ObjectReclaimQueue objectReclaimQueue;
+
+    private final ImageMetadataCache imageMetadataCache;
+
+    private final ProjectStatsBuffer projectStatsBuffer;
+
+    private final ThreadPoolTaskExecutor bulkUploadExecutor;
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    // zip 한 개에서 꺼낼 수 있는 항목 수와 전체 해제 크기 (항목 하나는 단건 업로드 최대 크기까지)
+    @Value("${upload.bulk.archive.max-entries:1000}")
+    private int maxArchiveEntries;
+
+    @Value("${upload.bulk.archive.max-uncompressed-size:800MB}")
+    private DataSize maxArchiveUncompressedSize;
+
+    @Value("${spring.servlet.multipart.max-file-size:200MB}")
+    private DataSize maxFileSize;
+
+    public BulkUploadService(ImageRepository imageRepository, ImageBatchRepository imageBatchRepository,
+                             MinioService minioService, ContentHasher contentHasher, ImageService imageService,
+                             ObjectReclaimQueue objectReclaimQueue, ImageMetadataCache imageMetadataCache,
+                             ProjectStatsBuffer projectStatsBuffer,
+                             @Qualifier("bulkUploadExecutor") ThreadPoolTaskExecutor bulkUploadExecutor) {
+        this.imageRepository = imageRepository;
+        this.imageService = imageService;
+        this.imageBatchRepository = imageBatchRepository;
+        this.minioService = minioService;
+        this.contentHasher = contentHasher;
+        this.objectReclaimQueue = objectReclaimQueue;
+        this.imageMetadataCache = imageMetadataCache;
+        this.projectStatsBuffer = projectStatsBuffer;
+        this.bulkUploadExecutor = bulkUploadExecutor;
+    }
+
+    public List<BulkUploadResult> uploadImages(String projectId, List<MultipartFile> files, MultipartFile archive)
+            throws IOException {
+        List<Path> tempFiles = new ArrayList<>();
+        try {
+            List<BulkItem> items = new ArrayList<>();
+            if (files != null) {
+                for (MultipartFile file : files) {
+                    items.add(new BulkItem(file.getOriginalFilename(), file.getContentType(), file.getSize(), file));
+                }
+            }
+            if (archive != null && !archive.isEmpty()) {
+                items.addAll(extractArchive(archive, tempFiles));
+            }
+            return upload(projectId, items);
+        } finally {
+            for (Path tempFile : tempFiles) {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+    }
+
+    private List<BulkUploadResult> upload(String projectId, List<BulkItem> items) {
+        int count = items.size();
+        String[] hashes = new String[count];
+        String[] preHashes = new String[count];
+        String[] errors = new String[count];
+
+        // 1. 병렬 해시 계산
+        List<CompletableFuture<ContentHasher.ContentHash>> hashFutures = items.stream()
+            .map(item -> CompletableFuture.supplyAsync(() -> hash(item), bulkUploadExecutor))
+            .toList();
+        for (int i = 0; i < count; i++) {
+            try {
+                ContentHasher.ContentHash hash = hashFutures.get(i).join();
+                hashes[i] = hash.value();
+                preHashes[i] = hash.preHash();
+            } catch (CompletionException e) {
+                errors[i] = rootMessage(e);
+            }
+        }
+
+        // 2. 중복 조회 (IN 1회), 배치 안의 같은 해시는 첫 항목만 업로드
+        Map<String, Integer> firstIndexByHash = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            if (hashes[i] != null) {
+                firstIndexByHash.putIfAbsent(hashes[i], i);
+            }
+        }
+        Map<String, Image> existing = new HashMap<>();
+        Map<String, Image> deleted = new HashMap<>();
+        if (!firstIndexByHash.isEmpty()) {
+            for (Image image : imageRepository.findByProjectIdAndFileHashIn(projectId, firstIndexByHash.keySet())) {
+                ("Y".equals(image.getDelYn()) ? deleted : existing).put(image.getFileHash(), image);
+            }
+        }
+
+        // 3. 새 파일만 동시 업로드
+        Map<String, String> fileNameByHash = new HashMap<>();
+        Map<String, CompletableFuture<Void>> uploadFutures = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : firstIndexByHash.entrySet()) {
+            String hash = entry.getKey();
+            if (existing.containsKey(hash)) {
+                continue;
+            }
+            BulkItem item = items.get(entry.getValue());
+            try {
+                String fileName = ImageService.generateFileName(projectId, item.originalFileName());
+                fileNameByHash.put(hash, fileName);
+                uploadFutures.put(hash, CompletableFuture.runAsync(() -> store(fileName, item), bulkUploadExecutor));
+            } catch (RuntimeException e) {
+                errors[entry.getValue()] = "Invalid file name: " + item.originalFileName();
+            }
+        }
+        Map<String, String> uploadErrors = new HashMap<>();
+        uploadFutures.forEach((hash, future) -> {
+            try {
+                future.join();
+            } catch (CompletionException e) {
+                uploadErrors.put(hash, rootMessage(e));
+            }
+        });
+
+        // 4. 업로드 성공한 파일만 JDBC 배치 저장 (삭제된 행과 같은 해시는 되살림)
+        List<Image> rows = new ArrayList<>();
+        Map<String, Long> idByFileName = new HashMap<>();
+        for (Map.Entry<String, String> entry : fileNameByHash.entrySet()) {
+            if (uploadErrors.containsKey(entry.getKey())) {
+                continue;
+            }
+            int index = firstIndexByHash.get(entry.getKey());
+            BulkItem item = items.get(index);
+            Image deletedImage = deleted.get(entry.getKey());
+            if (deletedImage != null) {
+                // 동시에 다른 요청이 먼저 되살렸으면 그 파일명을 사용 (업로드한 객체는 정리됨)
+                String revivedFileName = imageService.reviveDeleted(deletedImage,
+                    ImageOutbox.StagedUpload.unstaged(entry.getValue()), item.originalFileName(), item.size());
+                entry.setValue(revivedFileName);
+                idByFileName.put(revivedFileName, deletedImage.getId());
+                continue;
+            }
+            rows.add(Image.builder()
+                .projectId(projectId)
+                .originalFileName(item.originalFileName())
+                .fileName(entry.getValue())
+                .fileHash(entry.getKey())
+                .hashAlgorithm(contentHasher.getAlgorithm())
+                .preHash(preHashes[index])
+                .fileSize(item.size())
+                .build());
+        }
+        if (!rows.isEmpty()) {
+            try {
+                imageBatchRepository.insertAll(rows);
+                // JDBC 배치 저장은 엔티티 리스너를 거치지 않으므로 목록 캐시와 통계를 직접 갱신
+                imageMetadataCache.invalidateProject(projectId);
+                rows.forEach(row -> projectStatsBuffer.record(null, ProjectStatsBuffer.Contribution.of(row)));
+                imageRepository.findByFileNameIn(rows.stream().map(Image::getFileName).toList())
+                    .forEach(image -> idByFileName.put(image.getFileName(), image.getId()));
+            } catch (DataIntegrityViolationException e) {
+                // 다른 요청(노드)이 같은 파일을 먼저 저장한 경우: 행 단위로 다시 저장하며 충돌한 것만 중복 처리
+                log.info("Bulk insert conflicted for project {}, retrying row by row", projectId);
+                for (Image row : rows) {
+                    insertOrResolve(row, existing, idByFileName);
+                }
+            } catch (RuntimeException e) {
+                log.error("Bulk insert failed for project {}, removing {} uploaded objects", projectId, rows.size(), e);
+                objectReclaimQueue.enqueue(rows.stream().map(Image::getFileName).toList(), "FAILED_UPLOAD");
+                rows.forEach(row -> uploadErrors.put(row.getFileHash(), "Failed to save image"));
+            }
+        }
+        log.info("Bulk upload for project {}: {} files, {} new, {} duplicates",
+            projectId, count, idByFileName.size(), existing.size());
+
+        // 5. 파일별 결과 (요청 순서 유지)
+        List<BulkUploadResult> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = items.get(i).originalFileName();
+            String hash = hashes[i];
+            if (errors[i] != null) {
+                results.add(BulkUploadResult.failed(name, errors[i]));
+            } else if (existing.containsKey(hash)) {
+                Image duplicate = existing.get(hash);
+                results.add(BulkUploadResult.duplicate(name, duplicate.getId(), duplicate.getFileName()));
+            } else if (uploadErrors.containsKey(hash) || errors[firstIndexByHash.get(hash)] != null) {
+                results.add(BulkUploadResult.failed(name, uploadErrors.getOrDefault(hash, errors[firstIndexByHash.get(hash)])));
+            } else {
+                String fileName = fileNameByHash.get(hash);
+                Long imageId = idByFileName.get(fileName);
+                results.add(firstIndexByHash.get(hash) == i
+                    ? BulkUploadResult.created(name, imageId, fileName)
+                    : BulkUploadResult.duplicate(name, imageId, fileName));
+            }
+        }
+        return results;
+    }
+
+    private void insertOrResolve(Image row, Map<String, Image> existing, Map<String, Long> idByFileName) {
+        try {
+            idByFileName.put(row.getFileName(), imageRepository.saveAndFlush(row).getId());
+        } catch (DataIntegrityViolationException e) {
+            Image winner = imageRepository.findByProjectIdAndFileHash(row.getProjectId(), row.getFileHash())
+                .orElseThrow(() -> e);
+            objectReclaimQueue.enqueue(List.of(row.getFileName()), "DUPLICATE");
+            existing.put(row.getFileHash(), winner);
+        }
+    }
+
+    private ContentHasher.ContentHash hash(BulkItem item) {
+        try (InputStream in = item.source().getInputStream()) {
+            String preHash = contentHasher.isPreHashEnabled() ? contentHasher.preHash(item.source(), item.size()) : null;
+            return new ContentHasher.ContentHash(contentHasher.getAlgorithm(), contentHasher.hash(in), preHash);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void store(String fileName, BulkItem item) {
+        try (InputStream in = item.source().getInputStream()) {
+            minioService.uploadMinioImage(fileName, in, item.contentType());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // zip 항목은 임시 파일로 풀어 두고 여러 번 읽을 수 있게 함
+    // 쿼터는 압축된 요청 크기만 보므로 푼 바이트 수를 세면서 복사하고 한도를 넘으면 중단 (임시 파일은 호출한 쪽에서 삭제)
+    private List<BulkItem> extractArchive(MultipartFile archive, List<Path> tempFiles) throws IOException {
+        List<BulkItem> items = new ArrayList<>();
+        long totalBytes = 0;
+        try (ZipInputStream zip = new ZipInputStream(archive.getInputStream())) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                if (items.size() >= maxArchiveEntries) {
+                    throw new ArchiveLimitExceededException("Archive has more than " + maxArchiveEntries + " entries");
+                }
+                String name = Path.of(entry.getName()).getFileName().toString();
+                Path tempFile = Files.createTempFile("bulk-", null);
+                tempFiles.add(tempFile);
+                long limit = Math.min(maxFileSize.toBytes(), maxArchiveUncompressedSize.toBytes() - totalBytes);
+                long size = copyBounded(zip, tempFile, limit);
+                if (size < 0) {
+                    throw new ArchiveLimitExceededException(limit < maxFileSize.toBytes()
+                        ? "Archive exceeds " + maxArchiveUncompressedSize + " uncompressed"
+                        : "Archive entry " + name + " exceeds " + maxFileSize);
+                }
+                totalBytes += size;
+                String contentType = MediaTypeFactory.getMediaType(name)
+                    .orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+                items.add(new BulkItem(name, contentType, size, new FileSystemResource(tempFile)));
+            }
+        }
+        return items;
+    }
+
+    // limit 을 넘으면 -1
+    private long copyBounded(InputStream in, Path target, long limit) throws IOException {
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        long copied = 0;
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                copied += read;
+                if (copied > limit) {
+                    return -1;
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return copied;
+    }
+
+    private String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
+    private record BulkItem(String originalFileName, String contentType, long size, InputStreamSource source) {
+    }
+}
@@ -0,0 +1,122 @@
+package com.first.image.upload.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import net.openhft.hashing.LongHashFunction;
+
+// 파일 내용 해시 계산 (알고리즘은 설정으로 선택, 행마다 사용한 알고리즘을 함께 저장)
+@Component
+public class ContentHasher {
+
+    public static final String SHA_256 = "SHA-256";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // 사전 해시는 크기 + 앞/뒤 64KB 만 읽음
+    private static final int PRE_HASH_SAMPLE = 64 * 1024;
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private static final LongHashFunction XX_HASH = LongHashFunction.xx();
+
+    @Value("${content.hash.algorithm:SHA-256}")
+    private String algorithm = SHA_256;
+
+    @Value("${content.hash.pre-hash.enabled:false}")
+    private boolean preHashEnabled;
+
+    // MessageDigest 는 스레드 안전하지 않으므로 스레드마다 하나씩 재사용 (getInstance 의 프로바이더 조회 비용 제거)
+    private final ThreadLocal<MessageDigest> digests = ThreadLocal.withInitial(() -> createDigest(algorithm));
+
+    private final ThreadLocal<byte[]> buffers = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
+    private final ThreadLocal<byte[]> samples = ThreadLocal.withInitial(() -> new byte[PRE_HASH_SAMPLE * 2]);
+
+    // 저장할 해시 값과 알고리즘, 사전 해시 (사용하지 않으면 null)
+    public record ContentHash(String algorithm, String value, String preHash) {
+    }
+
+    // 지원하지 않는 알고리즘이면 기동 시점에 실패
+    @PostConstruct
+    void validate() {
+        createDigest(algorithm);
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public boolean isPreHashEnabled() {
+        return preHashEnabled;
+    }
+
+    // 현재 스레드의 다이제스트 (초기화된 상태, 같은 스레드에서 다음 해시 계산 전까지만 사용)
+    public MessageDigest digest() {
+        MessageDigest md = digests.get();
+        md.reset();
+        return md;
+    }
+
+    // 스트림을 끝까지 읽으며 해시 계산 (닫는 책임은 호출자)
+    public String hash(InputStream in) throws IOException {
+        return digest(in, digest());
+    }
+
+    // 설정과 관계없이 특정 알고리즘으로 계산 (예: 클라이언트가 보낸 SHA-256 검증)
+    public String hash(InputStream in, String algorithm) throws IOException {
+        if (this.algorithm.equals(algorithm)) {
+            return hash(in);
+        }
+        try {
+            return digest(in, MessageDigest.getInstance(algorithm));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("해시 계산 실패", e);
+        }
+    }
+
+    // 중복 후보를 빠르게 거르기 위한 비암호 해시 (xxHash64), 같으면 전체 해시로 다시 확인해야 함
+    public String preHash(InputStreamSource source, long size) throws IOException {
+        byte[] sample = samples.get();
+        int length;
+        try (InputStream in = source.getInputStream()) {
+            if (size <= sample.length) {
+                length = in.readNBytes(sample, 0, sample.length);
+            } else {
+                length = in.readNBytes(sample, 0, PRE_HASH_SAMPLE);
+                in.skipNBytes(size - 2L * PRE_HASH_SAMPLE);
+                length += in.readNBytes(sample, length, PRE_HASH_SAMPLE);
+            }
+        }
+        return HEX.toHexDigits(size) + HEX.toHexDigits(XX_HASH.hashBytes(sample, 0, length));
+    }
+
+    public String toHex(byte[] hashBytes) {
+        return HEX.formatHex(hashBytes);
+    }
+
+    private String digest(InputStream in, MessageDigest md) throws IOException {
+        byte[] buffer = buffers.get();
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            md.update(buffer, 0, n);
+        }
+        return toHex(md.digest());
+    }
+
+    private static MessageDigest createDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Unsupported content hash algorithm: " + algorithm, e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.first.image.upload.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.first.image.upload.dto.DirectUploadComplete;
+import com.first.image.upload.dto.DirectUploadRequest;
+import com.first.image.upload.dto.DirectUploadSlot;
+import com.first.image.upload.entity.Image;
+import com.first.image.upload.repo.ImageRepository;
+import com.first.image.upload.service.ImageOutbox.StagedUpload;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+
+// 서명된 URL 로 클라이언트가 MinIO 에 직접 업로드하고, 완료 시 검증 후 등록 (앱 서버는 파일 바이트를 받지 않음)
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DirectUploadService {
+
+    private final ImageRepository imageRepository;
+
+    private final ImageService imageService;
+
+    private final MinioService minioService;
+
+    private final ContentHasher contentHasher;
+
+    private final ImageOutbox imageOutbox;
+
+    @Value("${upload.direct.expiry-seconds:900}")
+    private long expirySeconds;
+
+    @Value("${upload.direct.max-file-size:209715200}")
+    private long maxFileSize;
+
+    public DirectUploadSlot requestSlot(String projectId, DirectUploadRequest request) {
+        String fileHash = normalizeHash(request.sha256());
+        if (request.fileSize() <= 0 || request.fileSize() > maxFileSize) {
+            throw new IllegalArgumentException("Invalid file size: " + request.fileSize());
+        }
+
+        // 1. 같은 파일이 이미 있으면 업로드 자체를 생략
+        Optional<Image> existing = imageRepository.findByProjectIdAndFileHash(projectId, fileHash);
+        if (existing.isPresent() && !"Y".equals(existing.get().getDelYn())) {
+            log.info("✅ 직접 업로드 전 중복 감지 - 기존 파일 반환: {}", existing.get().getFileName());
+            return DirectUploadSlot.duplicate(existing.get().getFileName());
+        }
+
+        // 2. 크기와 체크섬을 포함해 서명된 PUT URL 발급 (완료 호출 없이 만료되면 아웃박스가 객체를 정리)
+        String fileName = ImageService.generateFileName(projectId, request.originalFileName());
+        imageOutbox.stageUpload(fileName, expirySeconds);
+        String checksum = Base64.getEncoder().encodeToString(HexFormat.of().parseHex(fileHash));
+        PresignedPutObjectRequest presigned = minioService.presignUpload(fileName, request.contentType(),
+                request.fileSize(), checksum, Duration.ofSeconds(expirySeconds));
+
+        return new DirectUploadSlot(DirectUploadSlot.Status.UPLOAD_REQUIRED, fileName,
+                presigned.url().toString(), presigned.signedHeaders(), presigned.expiration());
+    }
+
+    public String complete(String projectId, DirectUploadComplete request) throws IOException {
+        String fileName = request.fileName();
+        String fileHash = normalizeHash(request.sha256());
+        if (fileName == null || !fileName.startsWith("projects/" + projectId + "/")) {
+            throw new IllegalArgumentException("File does not belong to project: " + fileName);
+        }
+
+        // 슬롯 발급 때 남긴 업로드 기록이 있어야 완료 가능 (키가 업로드마다 고유하므로 키로 찾을 수 있음)
+        // 기록 없이 등록하면 프로젝트 경로 아래 아무 객체나, 혹은 이미 정리 중인 객체를 이미지로 등록할 수 있음
+        StagedUpload staged = imageOutbox.findStaged(fileName)
+                .orElseThrow(() -> new IllegalArgumentException("Upload slot not found: " + fileName));
+
+        // 1. 객체 존재와 크기 확인
+        HeadObjectResponse head = minioService.headImage(fileName);
+        if (head == null) {
+            throw new IllegalArgumentException("Object not uploaded: " + fileName);
+        }
+        if (head.contentLength() != request.fileSize()) {
+            imageOutbox.discardStaged(staged, "REJECTED_UPLOAD");
+            throw new IllegalArgumentException("Size mismatch for " + fileName);
+        }
+
+        // 2. 체크섬 확인 (MinIO 가 체크섬을 돌려주지 않으면 스트리밍으로 직접 계산)
+        String actualHash = head.checksumSHA256() != null
+                ? HexFormat.of().formatHex(Base64.getDecoder().decode(head.checksumSHA256()))
+                : hashStoredObject(fileName);
+        if (!fileHash.equals(actualHash)) {
+            imageOutbox.discardStaged(staged, "REJECTED_UPLOAD");
+            throw new IllegalArgumentException("Checksum mismatch for " + fileName);
+        }
+
+        // 3. 중복 확인 후 등록 (썸네일 작업도 여기서 시작), 클라이언트가 보낸 값이므로 설정과 관계없이 SHA-256 으로 기록
+        return imageService.registerUploadedObject(projectId, staged, request.originalFileName(),
+                new ContentHasher.ContentHash(ContentHasher.SHA_256, fileHash, null), request.fileSize());
+    }
+
+    private String hashStoredObject(String fileName) throws IOException {
+        try (InputStream in = minioService.openStream(fileName, null, null)) {
+            return contentHasher.hash(in, ContentHasher.SHA_256);
+        }
+    }
+
+    private String normalizeHash(String sha256) {
+        if (sha256 == null || !sha256.matches("[0-9a-fA-F]{64}")) {
+            throw new IllegalArgumentException("sha256 must be 64 hex characters");
+        }
+        return sha256.toLowerCase();
+    }
+}
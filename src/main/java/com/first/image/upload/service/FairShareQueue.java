@@ -0,0 +1,325 @@
+package com.first.image.upload.service;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToDoubleFunction;
+import java.util.function.UnaryOperator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// 썸네일 워커 풀의 작업 큐: 프로젝트별 가중 공정 큐잉 (WFQ)
+// 작업마다 가상 종료 시각 = max(현재 가상 시각, 같은 프로젝트의 직전 종료 시각) + 1/가중치 를 매기고 작은 것부터 꺼냄
+// 대량 작업을 쌓아 둔 프로젝트가 있어도 다른 프로젝트의 작업은 가중치 비율만큼 끼어들어 처리됨
+public class FairShareQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+    // 프로젝트를 알 수 없는 작업 (복구 경로 등)
+    public static final String UNATTRIBUTED = "";
+
+    private static final ThreadLocal<String> SUBMITTING_PROJECT = new ThreadLocal<>();
+
+    private final int capacity;
+
+    private final ToDoubleFunction<String> weightOf;
+
+    // 메트릭 태그는 설정된 프로젝트 + "other" 로 한정 (projectId 를 그대로 쓰면 시계열이 무한히 늘어남)
+    private final UnaryOperator<String> meterTagOf;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> waitTimers = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = lock.newCondition();
+
+    private final Condition notFull = lock.newCondition();
+
+    private final PriorityQueue<Entry> entries = new PriorityQueue<>();
+
+    private final Map<String, Double> lastFinish = new HashMap<>();
+
+    private final Map<String, Integer> queued = new HashMap<>();
+
+    private double virtualTime;
+
+    private long sequence;
+
+    // 제출 스레드에서 프로젝트를 붙인 작업 (TaskDecorator 로 감쌈)
+    public record ProjectTask(String projectId, Runnable task) implements Runnable {
+
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+
+    private record Entry(ProjectTask task, double finish, long sequence, long enqueuedAt) implements Comparable<Entry> {
+
+        @Override
+        public int compareTo(Entry other) {
+            int byFinish = Double.compare(finish, other.finish);
+            return byFinish != 0 ? byFinish : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Submission {
+        void submit() throws Exception;
+    }
+
+    public FairShareQueue(int capacity, ToDoubleFunction<String> weightOf, UnaryOperator<String> meterTagOf,
+                          MeterRegistry meterRegistry) {
+        this.capacity = capacity;
+        this.weightOf = weightOf;
+        this.meterTagOf = meterTagOf;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // 이 블록 안에서 워커 풀에 제출한 작업은 해당 프로젝트 몫으로 큐잉됨
+    public static void submitAs(String projectId, Submission submission) throws Exception {
+        String previous = SUBMITTING_PROJECT.get();
+        SUBMITTING_PROJECT.set(projectId);
+        try {
+            submission.submit();
+        } finally {
+            if (previous == null) {
+                SUBMITTING_PROJECT.remove();
+            } else {
+                SUBMITTING_PROJECT.set(previous);
+            }
+        }
+    }
+
+    public static Runnable attribute(Runnable task) {
+        return new ProjectTask(Objects.requireNonNullElse(SUBMITTING_PROJECT.get(), UNATTRIBUTED), task);
+    }
+
+    @Override
+    public boolean offer(Runnable task) {
+        Objects.requireNonNull(task);
+        lock.lock();
+        try {
+            if (entries.size() >= capacity) {
+                return false;
+            }
+            enqueue(task);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(Runnable task) throws InterruptedException {
+        Objects.requireNonNull(task);
+        lock.lockInterruptibly();
+        try {
+            while (entries.size() >= capacity) {
+                notFull.await();
+            }
+            enqueue(task);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(Runnable task, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(task);
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (entries.size() >= capacity) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            enqueue(task);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        Entry entry;
+        lock.lockInterruptibly();
+        try {
+            while (entries.isEmpty()) {
+                notEmpty.await();
+            }
+            entry = dequeue();
+        } finally {
+            lock.unlock();
+        }
+        return recordWait(entry);
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        Entry entry;
+        lock.lockInterruptibly();
+        try {
+            while (entries.isEmpty()) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            entry = dequeue();
+        } finally {
+            lock.unlock();
+        }
+        return recordWait(entry);
+    }
+
+    @Override
+    public Runnable poll() {
+        Entry entry;
+        lock.lock();
+        try {
+            entry = entries.isEmpty() ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+        return entry == null ? null : recordWait(entry);
+    }
+
+    @Override
+    public Runnable peek() {
+        lock.lock();
+        try {
+            Entry head = entries.peek();
+            return head == null ? null : head.task();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return capacity - entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ThreadPoolExecutor.remove / purge 용
+    @Override
+    public boolean remove(Object task) {
+        lock.lock();
+        try {
+            Iterator<Entry> it = entries.iterator();
+            while (it.hasNext()) {
+                Entry entry = it.next();
+                if (entry.task().equals(task)) {
+                    it.remove();
+                    release(entry.task().projectId());
+                    notFull.signal();
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> target) {
+        return drainTo(target, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> target, int maxElements) {
+        List<Entry> drained = new ArrayList<>();
+        lock.lock();
+        try {
+            while (drained.size() < maxElements && !entries.isEmpty()) {
+                drained.add(dequeue());
+            }
+        } finally {
+            lock.unlock();
+        }
+        drained.forEach(entry -> target.add(recordWait(entry)));
+        return drained.size();
+    }
+
+    // 스냅샷 (꺼내는 순서와 다를 수 있음)
+    @Override
+    public Iterator<Runnable> iterator() {
+        lock.lock();
+        try {
+            List<Runnable> snapshot = new ArrayList<>(entries.size());
+            entries.forEach(entry -> snapshot.add(entry.task()));
+            return snapshot.iterator();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void enqueue(Runnable task) {
+        ProjectTask projectTask = task instanceof ProjectTask attributed ? attributed : new ProjectTask(UNATTRIBUTED, task);
+        String projectId = projectTask.projectId();
+        double weight = Math.max(weightOf.applyAsDouble(projectId), 0.01);
+        double start = Math.max(virtualTime, lastFinish.getOrDefault(projectId, 0.0));
+        double finish = start + 1.0 / weight;
+        lastFinish.put(projectId, finish);
+        queued.merge(projectId, 1, Integer::sum);
+        entries.add(new Entry(projectTask, finish, sequence++, System.nanoTime()));
+        notEmpty.signal();
+    }
+
+    private Entry dequeue() {
+        Entry entry = entries.poll();
+        virtualTime = Math.max(virtualTime, entry.finish());
+        release(entry.task().projectId());
+        notFull.signal();
+        return entry;
+    }
+
+    // 잠금 밖에서 호출 (타이머는 태그별로 한 번만 등록)
+    private Runnable recordWait(Entry entry) {
+        waitTimers.computeIfAbsent(meterTagOf.apply(entry.task().projectId()), tag -> Timer.builder("admission.queue.wait")
+                        .tag("project", tag)
+                        .register(meterRegistry))
+                .record(System.nanoTime() - entry.enqueuedAt(), TimeUnit.NANOSECONDS);
+        return entry.task();
+    }
+
+    // 대기 작업이 없는 프로젝트의 상태는 버림 (다음 작업은 현재 가상 시각부터 시작)
+    private void release(String projectId) {
+        if (queued.merge(projectId, -1, Integer::sum) <= 0) {
+            queued.remove(projectId);
+            lastFinish.remove(projectId);
+        }
+    }
+}
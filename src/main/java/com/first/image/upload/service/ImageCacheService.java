@@ -0,0 +1,154 @@
+package com.first.image.upload.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// 이미지 바이트 2단 캐시: 힙 LRU(썸네일) + 로컬 디스크 mmap(원본)
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageCacheService {
+
+    private final MinioService minioService;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${image.cache.heap.max-bytes:67108864}")
+    private long heapMaxBytes;
+
+    @Value("${image.cache.disk.max-bytes:2147483648}")
+    private long diskMaxBytes;
+
+    @Value("${image.cache.disk.dir:${java.io.tmpdir}/image-cache}")
+    private Path diskDir;
+
+    private Cache<String, byte[]> heapCache;
+
+    private Cache<String, CachedFile> diskCache;
+
+    @PostConstruct
+    void init() throws IOException {
+        // 디스크 인덱스는 메모리에만 있으므로 이전 실행의 파일은 정리
+        Files.createDirectories(diskDir);
+        try (Stream<Path> files = Files.list(diskDir)) {
+            files.forEach(this::deleteQuietly);
+        }
+
+        heapCache = Caffeine.newBuilder()
+                .maximumWeight(heapMaxBytes)
+                .weigher((String key, byte[] value) -> value.length)
+                .recordStats()
+                .build();
+
+        // 디스크 가중치는 KB 단위 (int 범위 초과 방지)
+        diskCache = Caffeine.newBuilder()
+                .maximumWeight(Math.max(1, diskMaxBytes / 1024))
+                .weigher((String key, CachedFile value) -> (int) Math.min(Integer.MAX_VALUE, Math.max(1, value.size() / 1024)))
+                .removalListener((String key, CachedFile value, RemovalCause cause) -> {
+                    if (value != null) {
+                        deleteQuietly(value.path());
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, heapCache, "imageHeapCache");
+        CaffeineCacheMetrics.monitor(meterRegistry, diskCache, "imageDiskCache");
+    }
+
+    // 썸네일: 힙에 있으면 S3 왕복 없이 반환
+    public byte[] getHeapCached(String fileName) throws IOException {
+        try {
+            return heapCache.get(fileName, key -> {
+                try {
+                    return minioService.downloadImage(key);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public boolean isHeapCached(String fileName) {
+        return heapCache.getIfPresent(fileName) != null;
+    }
+
+    // 방금 만들어 올린 객체는 다시 내려받지 않도록 바로 적재
+    public void putHeap(String fileName, byte[] data) {
+        heapCache.put(fileName, data);
+    }
+
+    // 원본: 스트리밍 응답 때 기록해 둔 디스크 계층 파일을 읽기 전용으로 매핑
+    public MappedByteBuffer getDiskCachedIfPresent(String fileName) throws IOException {
+        CachedFile cached = diskCache.getIfPresent(fileName);
+        if (cached == null) {
+            return null;
+        }
+        try {
+            return map(cached.path());
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    // 스트리밍 응답과 동시에 기록할 디스크 계층 파일 경로
+    public Path newDiskFile() {
+        return diskDir.resolve(UUID.randomUUID().toString());
+    }
+
+    public void putDiskFile(String fileName, Path path, long size) {
+        diskCache.put(fileName, new CachedFile(path, size));
+    }
+
+    public void discardDiskFile(Path path) {
+        deleteQuietly(path);
+    }
+
+    public void invalidate(Collection<String> fileNames) {
+        Collection<String> keys = fileNames.stream().filter(Objects::nonNull).toList();
+        heapCache.invalidateAll(keys);
+        diskCache.invalidateAll(keys);
+    }
+
+    private MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete cached file {}", path, e);
+        }
+    }
+
+    private record CachedFile(Path path, long size) {
+    }
+}
@@ -0,0 +1,129 @@
+package com.first.image.upload.service;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// 헤더에서 크기를 먼저 읽고, 목표 크기에 맞춰 서브샘플링하여 디코딩
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImageDecoder {
+
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final MeterRegistry meterRegistry;
+
+    // 원본 픽셀 수 상한 (초과 시 디코딩하지 않음)
+    @Value("${thumbnail.decode.max-source-pixels:250000000}")
+    private long maxSourcePixels;
+
+    // 전체 워커가 동시에 점유할 수 있는 디코딩 래스터 메모리 (KB 단위 퍼밋)
+    @Value("${thumbnail.decode.memory-budget-mb:256}")
+    private int memoryBudgetMb;
+
+    private Semaphore decodeMemory;
+
+    private int totalPermits;
+
+    @PostConstruct
+    void init() {
+        totalPermits = memoryBudgetMb * 1024;
+        decodeMemory = new Semaphore(totalPermits, true);
+        Gauge.builder("thumbnail.decode.memory.available", decodeMemory, s -> s.availablePermits() * 1024.0)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public DecodedImage decode(byte[] data, int targetSize) throws IOException {
+        return decode(data, targetSize, targetSize, false);
+    }
+
+    // cover 면 박스를 채울 수 있도록 짧은 쪽 기준으로 서브샘플링 (0 은 제한 없음)
+    public DecodedImage decode(byte[] data, int targetWidth, int targetHeight, boolean cover) throws IOException {
+        try (ImageInputStream iis = new MemoryCacheImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) {
+                throw new UnsupportedImageException("Unsupported image format");
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+
+                // 1. 헤더에서 원본 크기만 확인
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxSourcePixels) {
+                    throw new UnsupportedImageException(String.format("Image too large: %dx%d exceeds %d pixels", width, height, maxSourcePixels));
+                }
+
+                // 2. 목표 크기보다 조금 큰 수준까지만 읽도록 서브샘플링 비율 계산
+                int widthRatio = targetWidth > 0 ? width / targetWidth : 0;
+                int heightRatio = targetHeight > 0 ? height / targetHeight : 0;
+                int subsampling = Math.max(1, cover ? Math.min(widthRatio, heightRatio) : Math.max(widthRatio, heightRatio));
+                int decodedWidth = (width + subsampling - 1) / subsampling;
+                int decodedHeight = (height + subsampling - 1) / subsampling;
+
+                // 3. 디코딩 메모리 확보 (예산 초과 시 대기)
+                int permits = permitsFor((long) decodedWidth * decodedHeight * BYTES_PER_PIXEL);
+                acquire(permits);
+                try {
+                    ImageReadParam param = reader.getDefaultReadParam();
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                    BufferedImage image = reader.read(0, param);
+                    log.debug("Decoded {}x{} -> {}x{} (subsampling {})", width, height,
+                            image.getWidth(), image.getHeight(), subsampling);
+                    return new DecodedImage(image, width, height, () -> decodeMemory.release(permits));
+                } catch (IOException | RuntimeException e) {
+                    decodeMemory.release(permits);
+                    throw e;
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // 예산보다 큰 단일 이미지는 예산 전체를 잡고 단독으로 처리
+    private int permitsFor(long bytes) {
+        long kb = (bytes + 1023) / 1024;
+        return (int) Math.max(1, Math.min(totalPermits, kb));
+    }
+
+    private void acquire(int permits) throws IOException {
+        try {
+            decodeMemory.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for decode memory", e);
+        }
+    }
+
+    // 사용이 끝나면 close 하여 디코딩 메모리 반환
+    public record DecodedImage(BufferedImage image, int sourceWidth, int sourceHeight, Runnable release)
+            implements AutoCloseable {
+
+        @Override
+        public void close() {
+            release.run();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.first.image.upload.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+
+// 이미지 바이트를 고정 버퍼로 스트리밍 (Range / ETag 조건부 요청 지원)
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageDownloadService {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final MinioService minioService;
+
+    private final ImageCacheService imageCacheService;
+
+    // 썸네일: 작으므로 힙 캐시 바이트에서 잘라서 제공
+    public ResponseEntity<StreamingResponseBody> serveThumbnail(String fileName, String eTag, MediaType mediaType,
+                                                                HttpHeaders requestHeaders) throws IOException {
+        if (notModified(requestHeaders, eTag)) {
+            return notModifiedResponse(eTag);
+        }
+
+        byte[] data = imageCacheService.getHeapCached(fileName);
+        long size = data.length;
+        HttpRange range = resolveRange(requestHeaders, eTag);
+        if (range == null) {
+            return full(eTag, mediaType, size, out -> out.write(data));
+        }
+        return partial(eTag, mediaType, size, range,
+            (start, end) -> out -> out.write(data, (int) start, (int) (end - start + 1)));
+    }
+
+    // 요청 시점 렌디션: 조건부 요청이면 생성하지 않고 304, 아니면 생성(또는 캐시 조회) 후 썸네일과 같이 제공
+    public ResponseEntity<StreamingResponseBody> serveRendered(String eTag, MediaType mediaType, HttpHeaders requestHeaders,
+                                                               RenderedObject renderedObject) throws IOException {
+        if (notModified(requestHeaders, eTag)) {
+            return notModifiedResponse(eTag);
+        }
+        return serveThumbnail(renderedObject.fileName(), eTag, mediaType, requestHeaders);
+    }
+
+    // 원본: 디스크 계층에 있으면 mmap, 없으면 S3 응답 스트림을 그대로 전달
+    // 크기가 기록되지 않은 행(예전 데이터)은 HEAD 로 확인, 객체가 없으면 404
+    public ResponseEntity<StreamingResponseBody> serveOriginal(String fileName, Long fileSize, String eTag, MediaType mediaType,
+                                                               HttpHeaders requestHeaders) throws IOException {
+        if (notModified(requestHeaders, eTag)) {
+            return notModifiedResponse(eTag);
+        }
+        long size;
+        if (fileSize != null) {
+            size = fileSize;
+        } else {
+            HeadObjectResponse head = minioService.headImage(fileName);
+            if (head == null) {
+                return ResponseEntity.notFound().build();
+            }
+            size = head.contentLength();
+        }
+
+        MappedByteBuffer cached = imageCacheService.getDiskCachedIfPresent(fileName);
+        HttpRange range = resolveRange(requestHeaders, eTag);
+        if (range == null) {
+            StreamingResponseBody body = cached != null
+                ? out -> writeBuffer(cached, out)
+                : out -> streamAndCache(fileName, out);
+            return full(eTag, mediaType, size, body);
+        }
+        return partial(eTag, mediaType, size, range, (start, end) -> cached != null
+            ? out -> writeBuffer(cached.slice((int) start, (int) (end - start + 1)), out)
+            : out -> {
+                try (InputStream in = minioService.openStream(fileName, start, end)) {
+                    copy(in, out);
+                }
+            });
+    }
+
+    private boolean notModified(HttpHeaders requestHeaders, String eTag) {
+        List<String> ifNoneMatch = requestHeaders.getIfNoneMatch();
+        return ifNoneMatch.contains(eTag) || ifNoneMatch.contains("*");
+    }
+
+    // 단일 구간만 지원, If-Range 가 현재 ETag 와 다르거나 Range 헤더 형식이 잘못되면 전체 응답
+    private HttpRange resolveRange(HttpHeaders requestHeaders, String eTag) {
+        List<HttpRange> ranges;
+        try {
+            ranges = requestHeaders.getRange();
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring malformed Range header: {}", requestHeaders.getFirst(HttpHeaders.RANGE));
+            return null;
+        }
+        if (ranges.size() != 1) {
+            return null;
+        }
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(eTag)) {
+            return null;
+        }
+        return ranges.get(0);
+    }
+
+    private ResponseEntity<StreamingResponseBody> notModifiedResponse(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+    }
+
+    private ResponseEntity<StreamingResponseBody> full(String eTag, MediaType mediaType, long size,
+                                                       StreamingResponseBody body) {
+        return ResponseEntity.ok()
+            .eTag(eTag)
+            .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+            .contentType(mediaType)
+            .contentLength(size)
+            .body(body);
+    }
+
+    private ResponseEntity<StreamingResponseBody> partial(String eTag, MediaType mediaType, long size, HttpRange range,
+                                                          RangeBody rangeBody) throws IOException {
+        // getRangeStart 는 시작 위치가 크기를 넘어도 그대로 돌려주므로 직접 확인
+        long start;
+        long end;
+        try {
+            start = range.getRangeStart(size);
+            end = range.getRangeEnd(size);
+        } catch (IllegalArgumentException e) {
+            return notSatisfiable(size);
+        }
+        if (start >= size || start > end) {
+            return notSatisfiable(size);
+        }
+
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+            .eTag(eTag)
+            .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+            .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size)
+            .contentType(mediaType)
+            .contentLength(end - start + 1)
+            .body(rangeBody.body(start, end));
+    }
+
+    private ResponseEntity<StreamingResponseBody> notSatisfiable(long size) {
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+            .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+            .build();
+    }
+
+    // 클라이언트로 보내면서 디스크 계층에도 기록, 끝까지 전송된 경우에만 캐시에 등록
+    private void streamAndCache(String fileName, OutputStream out) throws IOException {
+        Path path = imageCacheService.newDiskFile();
+        boolean completed = false;
+        try (InputStream in = minioService.openStream(fileName, null, null);
+             FileChannel file = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long total = 0;
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+                file.write(ByteBuffer.wrap(buffer, 0, n));
+                total += n;
+            }
+            imageCacheService.putDiskFile(fileName, path, total);
+            completed = true;
+        } finally {
+            if (!completed) {
+                imageCacheService.discardDiskFile(path);
+            }
+        }
+    }
+
+    private void writeBuffer(ByteBuffer buffer, OutputStream out) throws IOException {
+        ByteBuffer view = buffer.duplicate();
+        WritableByteChannel channel = Channels.newChannel(out);
+        while (view.hasRemaining()) {
+            channel.write(view);
+        }
+    }
+
+    private void copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            out.write(buffer, 0, n);
+        }
+    }
+
+    @FunctionalInterface
+    public interface RenderedObject {
+        String fileName() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface RangeBody {
+        StreamingResponseBody body(long start, long end) throws IOException;
+    }
+}
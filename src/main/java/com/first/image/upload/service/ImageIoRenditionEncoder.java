@@ -0,0 +1,53 @@
+package com.first.image.upload.service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+// ImageIO 플러그인 기반 인코더: 라이터는 스레드마다 하나씩 재사용
+// (ImageIO.write 는 호출마다 라이터를 찾고, 캐시 설정에 따라 임시 파일을 거쳐 씀)
+public abstract class ImageIoRenditionEncoder implements RenditionEncoder {
+
+    private final String writerFormat;
+
+    private final ThreadLocal<ImageWriter> writers = ThreadLocal.withInitial(this::createWriter);
+
+    protected ImageIoRenditionEncoder(String writerFormat) {
+        this.writerFormat = writerFormat;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return ImageIO.getImageWritersByFormatName(writerFormat).hasNext();
+    }
+
+    @Override
+    public void encode(BufferedImage image, OutputStream out) throws IOException {
+        ImageWriter writer = writers.get();
+        try (ImageOutputStream ios = new MemoryCacheImageOutputStream(out)) {
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(image, null, null), writeParam(writer));
+        } finally {
+            writer.reset();
+        }
+    }
+
+    // 포맷별 품질/압축 설정 (null 이면 기본값)
+    protected abstract ImageWriteParam writeParam(ImageWriter writer);
+
+    private ImageWriter createWriter() {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(writerFormat);
+        if (!writers.hasNext()) {
+            throw new IllegalStateException("No ImageIO writer for format: " + writerFormat);
+        }
+        return writers.next();
+    }
+}
@@ -0,0 +1,82 @@
+package com.first.image.upload.service;
+
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.first.image.upload.entity.Image;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+// 이미지 메타데이터 캐시: 단건 조회 + 프로젝트 목록 페이지 (조회 전용, 변경 경로는 DB 에서 직접 읽음)
+// 노드마다 따로 캐시하므로 다른 노드에서의 변경은 TTL 이내에 반영됨
+@Component
+@RequiredArgsConstructor
+public class ImageMetadataCache {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${image.metadata-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${image.metadata-cache.max-images:10000}")
+    private long maxImages;
+
+    @Value("${image.metadata-cache.max-pages:2000}")
+    private long maxPages;
+
+    private Cache<Long, Image> images;
+
+    private Cache<PageKey, Object> pages;
+
+    // 목록 종류(offset / cursor), 위치, 크기별 페이지
+    private record PageKey(String projectId, String kind, String position, int size) {
+    }
+
+    @PostConstruct
+    void init() {
+        images = Caffeine.newBuilder()
+                .maximumSize(maxImages)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        pages = Caffeine.newBuilder()
+                .maximumSize(maxPages)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, images, "imageMetadataCache");
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "imagePageCache");
+    }
+
+    // 로더가 예외를 던지면 캐시하지 않음 (없는 ID 는 매번 DB 조회)
+    public Image getImage(Long imageId, Function<Long, Image> loader) {
+        return images.get(imageId, loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T getPage(String projectId, String kind, String position, int size, Supplier<T> loader) {
+        return (T) pages.get(new PageKey(projectId, kind, position, size), key -> loader.get());
+    }
+
+    public void invalidate(Long imageId, String projectId) {
+        if (imageId != null) {
+            images.invalidate(imageId);
+        }
+        invalidateProject(projectId);
+    }
+
+    // 프로젝트의 모든 목록 페이지 (캐시 크기가 제한되어 있으므로 전체 키를 훑음)
+    public void invalidateProject(String projectId) {
+        pages.asMap().keySet().removeIf(key -> key.projectId().equals(projectId));
+    }
+}
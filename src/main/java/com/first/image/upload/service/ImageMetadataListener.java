@@ -0,0 +1,38 @@
+package com.first.image.upload.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.first.image.upload.entity.Image;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+// Image 저장/수정/삭제 시 메타데이터 캐시 무효화 (업로드, 수정, 삭제, 썸네일 상태 변경 모두 이 경로를 거침)
+// 커밋 전에 다른 요청이 이전 값을 다시 채울 수 있으므로 커밋 후 한 번 더 비움
+@Component
+@RequiredArgsConstructor
+public class ImageMetadataListener {
+
+    private final ImageMetadataCache imageMetadataCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Image image) {
+        Long imageId = image.getId();
+        String projectId = image.getProjectId();
+        imageMetadataCache.invalidate(imageId, projectId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    imageMetadataCache.invalidate(imageId, projectId);
+                }
+            });
+        }
+    }
+}
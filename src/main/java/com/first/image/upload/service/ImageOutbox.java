@@ -0,0 +1,133 @@
+package com.first.image.upload.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.first.image.upload.entity.OutboxEvent;
+import com.first.image.upload.entity.OutboxEventType;
+import com.first.image.upload.repo.OutboxEventRepository;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+
+// 트랜잭션 아웃박스: 행 변경과 함께 후속 작업을 기록하고, 스토리지 I/O 는 트랜잭션 밖에서 실행
+// 업로드 전에 UPLOAD_STAGED 를 남겨 두면 등록 전에 노드가 죽어도 만료 후 객체(또는 블롭 참조)가 정리됨
+@Service
+@RequiredArgsConstructor
+public class ImageOutbox {
+
+    private static final long MAX_BACKOFF_SECONDS = 3600;
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final ObjectReclaimQueue objectReclaimQueue;
+
+    private final BlobService blobService;
+
+    // 커밋 직후 이 노드가 전달하지 못한 경우에만 릴레이가 가져가도록 유예
+    @Value("${outbox.publish-grace-seconds:30}")
+    private long publishGraceSeconds;
+
+    @Value("${outbox.lease-seconds:120}")
+    private long leaseSeconds;
+
+    // 업로드 시작 후 이 시간 안에 행이 등록되지 않으면 업로드 실패로 보고 정리
+    @Value("${outbox.staged-upload-timeout-seconds:3600}")
+    private long stagedUploadTimeoutSeconds;
+
+    // 호출한 쪽 트랜잭션에 참여하여 행 변경과 함께 커밋됨
+    @Transactional
+    public OutboxEvent requestThumbnail(Long imageId) {
+        return outboxEventRepository.save(OutboxEvent.builder()
+                .type(OutboxEventType.THUMBNAIL_REQUESTED)
+                .imageId(imageId)
+                .nextAttemptAt(LocalDateTime.now().plusSeconds(publishGraceSeconds))
+                .build());
+    }
+
+    // 업로드 기록 (블롭 키는 같은 내용의 업로드끼리 공유하므로 기록은 이벤트 ID 로 구분)
+    public record StagedUpload(Long eventId, String fileName) {
+
+        // 업로드 기록 없이 올린 객체 (대량 업로드)
+        public static StagedUpload unstaged(String fileName) {
+            return new StagedUpload(null, fileName);
+        }
+    }
+
+    // 업로드 대기 시간(예: 서명된 URL 유효 시간)이 있으면 그만큼 만료를 늦춤
+    @Transactional
+    public StagedUpload stageUpload(String fileName, long pendingSeconds) {
+        OutboxEvent event = outboxEventRepository.save(OutboxEvent.builder()
+                .type(OutboxEventType.UPLOAD_STAGED)
+                .fileName(fileName)
+                .nextAttemptAt(LocalDateTime.now().plusSeconds(pendingSeconds + stagedUploadTimeoutSeconds))
+                .build());
+        return new StagedUpload(event.getId(), fileName);
+    }
+
+    // 키가 업로드마다 다른 경우(직접 업로드)에만 사용
+    @Transactional
+    public Optional<StagedUpload> findStaged(String fileName) {
+        return outboxEventRepository.findFirstByTypeAndFileName(OutboxEventType.UPLOAD_STAGED, fileName)
+                .map(event -> new StagedUpload(event.getId(), fileName));
+    }
+
+    // 객체를 참조하는 행(또는 정리 기록)과 같은 트랜잭션에서 호출, 이미 처리된 기록이면 0
+    @Transactional
+    public int resolveStaged(StagedUpload staged) {
+        return staged.eventId() == null ? 1 : outboxEventRepository.deleteEvent(staged.eventId());
+    }
+
+    // 등록되지 않을 업로드 객체 정리: 블롭이면 참조 반납, 아니면 삭제 대기열에 등록
+    // 기록이 이미 없으면 다른 쪽(릴레이)이 정리한 것이므로 참조를 두 번 반납하지 않음
+    @Transactional
+    public void discardStaged(StagedUpload staged, String reason) {
+        if (resolveStaged(staged) == 0) {
+            return;
+        }
+        String fileName = staged.fileName();
+        if (blobService.isBlob(fileName)) {
+            blobService.release(fileName);
+        } else {
+            objectReclaimQueue.enqueue(List.of(fileName), reason);
+        }
+    }
+
+    // 커밋 이후(afterCommit)에 호출되므로 별도 트랜잭션으로 실행
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public boolean claim(Long eventId) {
+        return outboxEventRepository.deleteEvent(eventId) == 1;
+    }
+
+    @Transactional
+    public List<OutboxEvent> claimBatch(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = outboxEventRepository.lockDueEvents(now, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        outboxEventRepository.leaseEvents(ids, now.plusSeconds(leaseSeconds));
+        return outboxEventRepository.findAllById(ids);
+    }
+
+    @Transactional
+    public void complete(List<OutboxEvent> events) {
+        outboxEventRepository.deleteAllInBatch(events);
+    }
+
+    // 실패한 이벤트는 지수 백오프로 다시 예약
+    @Transactional
+    public void reschedule(List<OutboxEvent> events) {
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent event : events) {
+            event.setAttempts(event.getAttempts() + 1);
+            long delay = Math.min(MAX_BACKOFF_SECONDS, 1L << Math.min(event.getAttempts(), 12));
+            event.setNextAttemptAt(now.plusSeconds(delay));
+        }
+        outboxEventRepository.saveAll(events);
+    }
+}
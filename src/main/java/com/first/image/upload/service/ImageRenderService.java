@@ -0,0 +1,176 @@
+package com.first.image.upload.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.first.image.upload.entity.Image;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// 요청 시점 렌디션: 처음 요청될 때 만들어 MinIO 에 저장하고, 이후에는 캐시/MinIO 에서 제공
+// 같은 키의 동시 요청은 한 번만 생성 (노드 간 중복 생성은 같은 키에 같은 바이트를 덮어쓰므로 무해)
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageRenderService {
+
+    private final ImageService imageService;
+
+    private final ThumbnailService thumbnailService;
+
+    private final ThumbnailEncoder thumbnailEncoder;
+
+    private final MinioService minioService;
+
+    private final ImageCacheService imageCacheService;
+
+    private final PipelineMetrics pipelineMetrics;
+
+    private final MeterRegistry meterRegistry;
+
+    // 허용하는 가로/세로 값 (임의 크기로 캐시를 무한히 늘리는 요청 차단)
+    @Value("${image.render.sizes:64,128,256,320,480,640,800,1024,1280,1920}")
+    private Set<Integer> allowedSizes;
+
+    @Value("${image.render.formats:jpg,png,webp}")
+    private Set<String> allowedFormats;
+
+    // 동시에 원본을 내려받아 생성하는 요청 수 (0이면 코어 수), 넘치면 요청 스레드에서 디코딩하지 않고 503
+    @Value("${image.render.max-concurrent:0}")
+    private int maxConcurrent;
+
+    @Value("${image.render.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    private Semaphore renderPermits;
+
+    private final ConcurrentMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        renderPermits = new Semaphore(maxConcurrentRenders(maxConcurrent));
+    }
+
+    // CPU 풀 큐 크기도 같은 값으로 잡으므로 함께 사용
+    public static int maxConcurrentRenders(int configured) {
+        return configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+    }
+
+    // 요청 파라미터 검증 (w, h 중 하나는 생략 가능, 생략하면 contain)
+    public RenderSpec resolve(Integer width, Integer height, String fit, String format) {
+        int w = width != null ? width : 0;
+        int h = height != null ? height : 0;
+        if (w == 0 && h == 0) {
+            throw new IllegalArgumentException("w or h is required");
+        }
+        if ((w != 0 && !allowedSizes.contains(w)) || (h != 0 && !allowedSizes.contains(h))) {
+            throw new IllegalArgumentException("Size not allowed, use one of " + allowedSizes.stream().sorted().toList());
+        }
+
+        RenderSpec.Fit renderFit;
+        try {
+            renderFit = fit == null ? RenderSpec.Fit.CONTAIN : RenderSpec.Fit.valueOf(fit.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("fit must be one of " + List.of(RenderSpec.Fit.values()));
+        }
+        if (w == 0 || h == 0) {
+            renderFit = RenderSpec.Fit.CONTAIN;
+        }
+
+        String renderFormat = format == null ? "jpg" : format.toLowerCase();
+        if ("jpeg".equals(renderFormat)) {
+            renderFormat = "jpg";
+        }
+        if (!allowedFormats.contains(renderFormat)) {
+            throw new IllegalArgumentException("Format not allowed, use one of " + allowedFormats);
+        }
+        thumbnailEncoder.encoderFor(renderFormat);
+        return new RenderSpec(w, h, renderFit, renderFormat);
+    }
+
+    // 렌디션 객체 키 반환 (없으면 생성 후 저장)
+    public String render(Image image, RenderSpec spec) throws IOException {
+        String key = spec.objectKey(image.getFileHash());
+        if (imageCacheService.isHeapCached(key)) {
+            countResult("cached");
+            return key;
+        }
+
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            countResult("joined");
+            return await(running);
+        }
+        try {
+            mine.complete(pipelineMetrics.observe("image.render", () -> loadOrRender(image, spec, key)));
+        } catch (IOException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+        return key;
+    }
+
+    private String loadOrRender(Image image, RenderSpec spec, String key) throws IOException {
+        // 1. 다른 노드(또는 재시작 전)에서 이미 만든 객체
+        boolean stored = pipelineMetrics.stage("image.render", "lookup", () -> minioService.headImage(key) != null);
+        if (stored) {
+            countResult("stored");
+            return key;
+        }
+
+        // 2. 원본을 내려받아 생성 후 저장 (동시 생성 수 제한)
+        if (!renderPermits.tryAcquire()) {
+            countResult("rejected");
+            throw new RenderCapacityExceededException(retryAfterSeconds);
+        }
+        byte[] data;
+        try {
+            byte[] original = pipelineMetrics.stage("image.render", "download", () -> minioService.downloadImage(image.getFileName()));
+            data = pipelineMetrics.stage("image.render", "render", () -> thumbnailService.renderOnCpuPool(original, spec));
+            pipelineMetrics.stage("image.render", "store", () -> {
+                minioService.uploadMinioImage(key, data, spec.contentType());
+                return null;
+            });
+        } finally {
+            renderPermits.release();
+        }
+        imageCacheService.putHeap(key, data);
+        countResult("rendered");
+        log.info("Rendered {} for image ID: {} ({} bytes)", key, image.getId(), data.length);
+        return key;
+    }
+
+    private String await(CompletableFuture<String> running) throws IOException {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException("Render failed", e.getCause());
+        }
+    }
+
+    // 요청 결과 (cached, joined, stored, rendered)
+    private void countResult(String result) {
+        meterRegistry.counter("image.render.requests", "result", result).increment();
+    }
+}
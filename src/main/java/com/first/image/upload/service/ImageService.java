@@ -2,11 +2,23 @@ package com.first.image.upload.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.first.image.upload.dto.CursorPage;
+import com.first.image.upload.dto.ImageSummary;
+import com.first.image.upload.dto.NearDuplicate;
 import com.first.image.upload.entity.Image;
+import com.first.image.upload.entity.ImageRendition;
+import com.first.image.upload.entity.OutboxEvent;
+import com.first.image.upload.entity.ThumbnailStatus;
+import com.first.image.upload.repo.ImageRenditionRepository;
+import com.first.image.upload.service.ImageOutbox.StagedUpload;
 import com.first.image.upload.repo.ImageRepository;
 
 import jakarta.transaction.Transactional;
@@ -17,145 +29,482 @@ import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
 import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantLock;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ImageService {
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final ThumbnailService thumbnailService;
 
     private final ImageRepository imageRepository;
 
     private final MinioService minioService;
 
-    private final ConcurrentHashMap<String, ReentrantLock> uploadLocks = new ConcurrentHashMap<>();
+    private final ThumbnailJobQueue thumbnailJobQueue;
 
-    @Transactional
-    public String uploadImage(String projectId, MultipartFile file) throws IOException {
-        try{
-            String fileHash = calculateFileHash(file.getBytes());
-            String lockKey = projectId + ":" + fileHash;
+    private final ImageRenditionRepository renditionRepository;
 
-            uploadLocks.putIfAbsent(lockKey, new ReentrantLock());
-            ReentrantLock lock = uploadLocks.get(lockKey);
-            lock.lock();
+    private final ImageCacheService imageCacheService;
 
+    private final ContentHasher contentHasher;
 
-            try {
-                // 3. 중복 파일 존재 여부 확인
-                Optional<Image> existingImage = imageRepository.findByProjectIdAndFileHash(projectId, fileHash);
-                
-                if (existingImage.isPresent()) {
-                    Image duplicate = existingImage.get();
-                    log.info("✅ 중복 파일 감지 - 기존 파일 반환: {} (해시: {})", duplicate.getFileName(), fileHash);
-                    return duplicate.getFileName();
+    private final ObjectReclaimQueue objectReclaimQueue;
+
+    private final PipelineMetrics pipelineMetrics;
+
+    private final BlobService blobService;
+
+    private final ImageMetadataCache imageMetadataCache;
+
+    private final ImageOutbox imageOutbox;
+
+    private final NearDuplicateIndex nearDuplicateIndex;
+
+    // 행 기록은 짧은 트랜잭션으로만 묶음 (MinIO I/O 동안 커넥션을 잡지 않음)
+    private final TransactionTemplate transactionTemplate;
+
+    public String uploadImage(String projectId, MultipartFile file) throws IOException {
+        return pipelineMetrics.observe("image.upload", () -> {
+            try{
+                if (blobService.isEnabled()) {
+                    return uploadContentAddressed(projectId, file);
                 }
-                
+
+                // 1. 사전 해시가 같은 행이 있을 때만 전체 해시를 먼저 계산해 중복이면 업로드 생략
+                String preHash = preHashOf("image.upload", file);
+                boolean hasCandidates = false;
+                if (preHash != null) {
+                    List<Image> candidates = pipelineMetrics.stage("image.upload", "dedup_lookup",
+                        () -> imageRepository.findByProjectIdAndPreHash(projectId, preHash));
+                    hasCandidates = !candidates.isEmpty();
+                    if (hasCandidates) {
+                        String fileHash = pipelineMetrics.stage("image.upload", "hash", () -> hashOf(file));
+                        Optional<Image> duplicate = candidates.stream()
+                            .filter(image -> fileHash.equals(image.getFileHash()) && !"Y".equals(image.getDelYn()))
+                            .findFirst();
+                        if (duplicate.isPresent()) {
+                            log.info("✅ 중복 파일 감지 - 업로드 없이 기존 파일 반환: {} (해시: {})", duplicate.get().getFileName(), fileHash);
+                            pipelineMetrics.countDedup("duplicate");
+                            return duplicate.get().getFileName();
+                        }
+                    }
+                }
+
+                // 2. 업로드 기록을 먼저 남기고, 스트림을 한 번만 읽으며 해시 계산과 업로드를 동시에 수행
                 String fileName = generateFileName(projectId, file.getOriginalFilename());
-    
-                minioService.uploadMinioImage(fileName, file.getBytes(), file.getContentType());
-    
-                Image savedImage = imageRepository.save(Image.builder()
+                StagedUpload staged = imageOutbox.stageUpload(fileName, 0);
+                String fileHash;
+                try {
+                    fileHash = pipelineMetrics.stage("image.upload", "store", () -> uploadAndHash(fileName, file));
+                } catch (IOException | RuntimeException e) {
+                    imageOutbox.discardStaged(staged, "FAILED_UPLOAD");
+                    throw e;
+                }
+
+                // 3. 중복 확인 후 저장 (사전 해시 후보가 없었으면 중복일 수 없으므로 조회 생략, 경합은 유니크 인덱스가 처리)
+                ContentHasher.ContentHash hash = new ContentHasher.ContentHash(contentHasher.getAlgorithm(), fileHash, preHash);
+                return registerUploadedObject(projectId, staged, file.getOriginalFilename(), hash, file.getSize(),
+                    preHash == null || hasCandidates);
+            }catch(Exception e){
+                log.error("Upload failed for project {}", projectId, e);
+                throw new IOException("Failed to upload image", e);
+            }
+        });
+    }
+
+    // 내용 주소 모드: 해시를 먼저 계산하고, 같은 내용의 블롭이 이미 있으면 MinIO 업로드 없이 참조만 추가
+    private String uploadContentAddressed(String projectId, MultipartFile file) throws IOException {
+        String fileHash = pipelineMetrics.stage("image.upload", "hash", () -> hashOf(file));
+        String preHash = preHashOf("image.upload", file);
+
+        // 1. 같은 프로젝트의 중복은 블롭을 참조하지 않고 기존 파일 반환
+        Optional<Image> existing = pipelineMetrics.stage("image.upload", "dedup_lookup",
+            () -> imageRepository.findByProjectIdAndFileHash(projectId, fileHash));
+        if (existing.isPresent() && !"Y".equals(existing.get().getDelYn())) {
+            pipelineMetrics.countDedup("duplicate");
+            return existing.get().getFileName();
+        }
+
+        // 2. 블롭 참조 후 이미지 등록 (등록 중 중복이 확인되면 registerUploadedObject 가 참조를 반납)
+        StagedUpload staged = acquireBlob("image.upload", fileHash, file);
+        try {
+            ContentHasher.ContentHash hash = new ContentHasher.ContentHash(contentHasher.getAlgorithm(), fileHash, preHash);
+            return registerUploadedObject(projectId, staged, file.getOriginalFilename(), hash, file.getSize());
+        } catch (RuntimeException e) {
+            imageOutbox.discardStaged(staged, "FAILED_UPLOAD");
+            throw e;
+        }
+    }
+
+    // 블롭 참조 +1, 아직 저장되지 않은 블롭이면 업로드
+    // 참조와 업로드 기록을 한 트랜잭션으로 남겨, 이미지 등록 전에 죽어도 만료 후 참조가 반납됨
+    private StagedUpload acquireBlob(String pipeline, String fileHash, MultipartFile file) throws IOException {
+        String blobFileName = blobService.blobFileName(fileHash, file.getOriginalFilename());
+        BlobUpload blob;
+        try {
+            blob = referenceBlob(fileHash, blobFileName, file.getSize());
+        } catch (DataIntegrityViolationException e) {
+            // 같은 내용이 동시에 처음 들어온 경우: 먼저 만들어진 블롭을 참조
+            blob = referenceBlob(fileHash, blobFileName, file.getSize());
+        }
+        StagedUpload staged = blob.staged();
+        if (!blob.uploadRequired()) {
+            pipelineMetrics.countDedup("shared_blob");
+            return staged;
+        }
+
+        try {
+            pipelineMetrics.stage(pipeline, "store", () -> {
+                try (InputStream in = file.getInputStream()) {
+                    return minioService.uploadMinioImage(staged.fileName(), in, file.getContentType());
+                }
+            });
+            blobService.markStored(fileHash);
+        } catch (IOException | RuntimeException e) {
+            imageOutbox.discardStaged(staged, "FAILED_UPLOAD");
+            throw e;
+        }
+        return staged;
+    }
+
+    private record BlobUpload(StagedUpload staged, boolean uploadRequired) {
+    }
+
+    private BlobUpload referenceBlob(String fileHash, String blobFileName, long fileSize) {
+        return transactionTemplate.execute(status -> {
+            BlobService.Reference reference = blobService.reference(fileHash, blobFileName, fileSize);
+            return new BlobUpload(imageOutbox.stageUpload(reference.fileName(), 0), reference.uploadRequired());
+        });
+    }
+
+    // 이미 MinIO 에 올라간 객체를 이미지로 등록하고 실제로 사용할 파일명을 반환
+    // 중복 판단은 (projectId, fileHash) 유니크 인덱스에 맡김: 먼저 insert 하고 충돌하면 승자를 반환
+    // (객체 업로드가 트랜잭션 밖에서 끝나도록 메서드 전체를 트랜잭션으로 묶지 않음, 행 + 아웃박스 기록만 짧은 트랜잭션)
+    public String registerUploadedObject(String projectId, StagedUpload staged, String originalFileName,
+                                         ContentHasher.ContentHash hash, long fileSize) {
+        return registerUploadedObject(projectId, staged, originalFileName, hash, fileSize, true);
+    }
+
+    private String registerUploadedObject(String projectId, StagedUpload staged, String originalFileName,
+                                          ContentHasher.ContentHash hash, long fileSize, boolean lookupExisting) {
+        String fileHash = hash.value();
+        String fileName = staged.fileName();
+
+        // 1. 중복 파일 존재 여부 확인 (완성된 해시 기준)
+        if (lookupExisting) {
+            Optional<Image> existingImage = pipelineMetrics.stage("image.upload", "dedup_lookup",
+                () -> imageRepository.findByProjectIdAndFileHash(projectId, fileHash));
+            if (existingImage.isPresent()) {
+                return resolveExisting(existingImage.get(), staged, originalFileName, fileSize);
+            }
+        }
+
+        // 2. 저장 (동시에 같은 파일이 들어오면 하나만 성공)
+        try {
+            pipelineMetrics.stage("image.upload", "insert", () -> transactionTemplate.execute(status -> {
+                Image savedImage = imageRepository.saveAndFlush(Image.builder()
                     .projectId(projectId)
-                    .originalFileName(file.getOriginalFilename())
+                    .originalFileName(originalFileName)
                     .fileName(fileName)
                     .fileHash(fileHash)
-                    .fileSize(file.getSize())
-                    .build()
-                );
-                Long imageId = savedImage.getId();
-    
-                thumbnailService.generateThumbnailAsync(imageId);
-                return fileName;
-                
-            } finally {
-                lock.unlock();
-                // 락 메모리 누수 방지
-                if (!lock.hasQueuedThreads()) {
-                    uploadLocks.remove(lockKey);
-                }
+                    .hashAlgorithm(hash.algorithm())
+                    .preHash(hash.preHash())
+                    .fileSize(fileSize)
+                    // 바로 워커에 넘기므로 이 노드가 리스를 잡아둠 (죽으면 만료 후 다른 노드가 처리)
+                    .thumbnailLeaseOwner(thumbnailJobQueue.getNodeId())
+                    .thumbnailLeaseUntil(thumbnailJobQueue.newLeaseExpiry())
+                    .build());
+                resolveStaged(staged);
+                requestThumbnail(savedImage.getId(), projectId);
+                return savedImage;
+            }));
+            pipelineMetrics.countDedup("new");
+            return fileName;
+        } catch (DataIntegrityViolationException e) {
+            Image winner = imageRepository.findByProjectIdAndFileHash(projectId, fileHash).orElseThrow(() -> e);
+            if ("Y".equals(winner.getDelYn())) {
+                // 조회를 생략한 경우 충돌 상대가 삭제된 행일 수 있음
+                return resolveExisting(winner, staged, originalFileName, fileSize);
             }
-        }catch(Exception e){
-            e.printStackTrace();
-            throw new IOException("Failed to upload image", e);
+            log.info("✅ 동시 업로드 중복 감지 - 먼저 저장된 파일 반환: {} (해시: {})", winner.getFileName(), fileHash);
+            discardDuplicate(staged, winner.getFileName());
+            pipelineMetrics.countDedup("race");
+            return winner.getFileName();
+        }
+    }
+
+    private String resolveExisting(Image existing, StagedUpload staged, String originalFileName, long fileSize) {
+        if (!"Y".equals(existing.getDelYn())) {
+            log.info("✅ 중복 파일 감지 - 기존 파일 반환: {} (해시: {})", existing.getFileName(), existing.getFileHash());
+            discardDuplicate(staged, existing.getFileName());
+            pipelineMetrics.countDedup("duplicate");
+            return existing.getFileName();
+        }
+
+        // 삭제된 이미지와 같은 파일이면 해당 행을 새 객체로 되살림
+        String fileName = reviveDeleted(existing, staged, originalFileName, fileSize);
+        if (fileName.equals(staged.fileName())) {
+            pipelineMetrics.countDedup("revived");
+        }
+        return fileName;
+    }
+
+    // 유니크 인덱스 때문에 삭제된 행을 새로 insert 할 수 없으므로 재사용하고 실제로 사용할 파일명을 반환
+    // 같은 삭제된 행을 동시에 되살리면 조건부 UPDATE 로 하나만 성공 (진 쪽은 승자의 파일명을 반환하고 자신의 객체를 정리)
+    public String reviveDeleted(Image deleted, StagedUpload staged, String originalFileName, long fileSize) {
+        String fileName = staged.fileName();
+        String revivedFileName = transactionTemplate.execute(status -> {
+            if (imageRepository.claimDeleted(deleted.getId(), fileName, LocalDateTime.now()) == 0) {
+                return imageRepository.findFileNameById(deleted.getId());
+            }
+            deleted.setDelYn("N");
+            deleted.setOriginalFileName(originalFileName);
+            deleted.setFileName(fileName);
+            deleted.setFileSize(fileSize);
+            deleted.setThumbnailFileName(null);
+            deleted.setThumbnailStatus(ThumbnailStatus.PROCESSING);
+            deleted.setRetryCount(0);
+            deleted.setThumbnailLeaseOwner(thumbnailJobQueue.getNodeId());
+            deleted.setThumbnailLeaseUntil(thumbnailJobQueue.newLeaseExpiry());
+            Image saved = imageRepository.save(deleted);
+            resolveStaged(staged);
+            requestThumbnail(saved.getId(), saved.getProjectId());
+            return fileName;
+        });
+        if (!fileName.equals(revivedFileName)) {
+            log.info("✅ 동시 복구 중복 감지 - 먼저 복구된 파일 반환: {} (해시: {})", revivedFileName, deleted.getFileHash());
+            discardDuplicate(staged, revivedFileName);
+            pipelineMetrics.countDedup("race");
+            return revivedFileName;
+        }
+        log.info("♻️ 삭제된 이미지 복구: {} (해시: {})", fileName, deleted.getFileHash());
+        return fileName;
+    }
+
+    // 중복으로 쓰이지 않을 업로드 정리
+    // 기존 행이 같은 일반 객체를 가리키면(같은 키로 완료를 다시 호출) 기록만 지우고 객체는 삭제하지 않음, 블롭은 받은 참조만 반납
+    private void discardDuplicate(StagedUpload staged, String existingFileName) {
+        if (staged.fileName().equals(existingFileName) && !blobService.isBlob(existingFileName)) {
+            imageOutbox.resolveStaged(staged);
+            return;
+        }
+        imageOutbox.discardStaged(staged, "DUPLICATE");
+    }
+
+    // 행을 등록하는 트랜잭션에서 업로드 기록 해소
+    // 기록이 이미 없으면 만료되어 릴레이가 객체(또는 블롭 참조)를 정리한 것이므로 등록을 되돌림
+    private void resolveStaged(StagedUpload staged) {
+        if (imageOutbox.resolveStaged(staged) == 0) {
+            throw new IllegalStateException("Staged upload already expired: " + staged.fileName());
         }
-        
     }
 
     public List<Image> getImagesList(String projectId,int page, int size) {
-        return imageRepository.findByProjectId(projectId, PageRequest.of(page - 1, size)).getContent();
+        return imageMetadataCache.getPage(projectId, "offset", String.valueOf(page), size,
+            () -> imageRepository.findByProjectId(projectId, PageRequest.of(page, size)).getContent());
+    }
+
+    // 커서 기반 목록: 마지막 ID 다음부터 size+1 건을 읽어 다음 페이지 여부 판단 (COUNT 쿼리 없음)
+    public CursorPage<ImageSummary> getImagesByCursor(String projectId, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        return imageMetadataCache.getPage(projectId, "cursor", cursor == null ? "" : cursor, pageSize,
+            () -> loadCursorPage(projectId, cursor, pageSize));
+    }
+
+    private CursorPage<ImageSummary> loadCursorPage(String projectId, String cursor, int pageSize) {
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<ImageSummary> rows = cursor == null || cursor.isBlank()
+            ? imageRepository.findFirstPageByProjectId(projectId, limit)
+            : imageRepository.findByProjectIdWithCursor(projectId, decodeCursor(cursor), limit);
+
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<ImageSummary> items = rows.subList(0, pageSize);
+        return new CursorPage<>(List.copyOf(items), encodeCursor(items.get(pageSize - 1).id()));
     }
 
+    // 조회 전용 (캐시된 인스턴스를 공유하므로 수정해서 저장하지 않음)
     public Image getImageById(Long imageId) {
-        return imageRepository.findById(imageId)
-            .orElseThrow(() -> new RuntimeException("Image not found with ID: " + imageId));
+        return imageMetadataCache.getImage(imageId, id -> imageRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Image not found with ID: " + id)));
+    }
+
+    // 지각 해시가 가까운 같은 프로젝트 이미지 (썸네일 생성 전이면 빈 목록)
+    public List<NearDuplicate> getNearDuplicates(Long imageId, Integer maxDistance) {
+        return nearDuplicateIndex.findNearDuplicates(getImageById(imageId),
+            maxDistance != null ? maxDistance : nearDuplicateIndex.getDefaultMaxDistance());
+    }
+
+    public List<ImageRendition> getRenditions(Long imageId) {
+        return renditionRepository.findByImageId(imageId);
+    }
+
+    public ImageRendition getRendition(Long imageId, String name) {
+        String renditionName = name != null ? name : thumbnailService.getPrimaryRendition();
+        return renditionRepository.findByImageIdAndName(imageId, renditionName)
+            .orElseThrow(() -> new RuntimeException("Rendition not found: " + renditionName + " (image ID: " + imageId + ")"));
     }
 
     public String patchImage(Long imageId, MultipartFile file) throws IOException {
+        return pipelineMetrics.observe("image.patch", () -> replaceImage(imageId, file));
+    }
+
+    private String replaceImage(Long imageId, MultipartFile file) throws IOException {
         Image image = imageRepository.findById(imageId)
         .orElseThrow(() -> new RuntimeException("Image not found with ID: " + imageId));
         
         
         String previousFileName = image.getFileName();
-        String previousThumbnailFileName = image.getThumbnailFileName();
-        String fileName = generateFileName(image.getProjectId(), file.getOriginalFilename());
-        String fileHash = calculateFileHash(file.getBytes());
-        
-        
-        minioService.uploadMinioImage(fileName, file.getBytes(), file.getContentType());
+        List<ImageRendition> previousRenditions = renditionRepository.findByImageId(imageId);
+        StagedUpload staged;
+        String fileHash;
+        if (blobService.isEnabled()) {
+            fileHash = pipelineMetrics.stage("image.patch", "hash", () -> hashOf(file));
+            staged = acquireBlob("image.patch", fileHash, file);
+        } else {
+            staged = imageOutbox.stageUpload(generateFileName(image.getProjectId(), file.getOriginalFilename()), 0);
+            try {
+                fileHash = pipelineMetrics.stage("image.patch", "store", () -> uploadAndHash(staged.fileName(), file));
+            } catch (IOException | RuntimeException e) {
+                imageOutbox.discardStaged(staged, "FAILED_UPLOAD");
+                throw e;
+            }
+        }
+        String fileName = staged.fileName();
         
         image.setOriginalFileName(file.getOriginalFilename());
         image.setFileName(fileName);
         image.setFileHash(fileHash);
+        image.setHashAlgorithm(contentHasher.getAlgorithm());
+        image.setPreHash(preHashOf("image.patch", file));
+        image.setPerceptualHash(null);
         image.setFileSize(file.getSize());
-        imageRepository.save(image);
-
-        thumbnailService.generateThumbnailAsync(imageId);
-        minioService.deleteImage(previousFileName);
-        minioService.deleteImage(previousThumbnailFileName);
+        image.setThumbnailStatus(ThumbnailStatus.PROCESSING);
+        image.setRetryCount(0);
+        image.setThumbnailLeaseOwner(thumbnailJobQueue.getNodeId());
+        image.setThumbnailLeaseUntil(thumbnailJobQueue.newLeaseExpiry());
+        // 행 변경, 이전 객체 정리 기록, 썸네일 요청을 한 트랜잭션으로 커밋 (중간에 죽어도 이전 객체가 남지 않음)
+        try {
+            pipelineMetrics.stage("image.patch", "insert", () -> transactionTemplate.execute(status -> {
+                imageRepository.saveAndFlush(image);
+                resolveStaged(staged);
+                requestThumbnail(imageId, image.getProjectId());
+                discardObject(previousFileName, previousRenditions, "PATCH");
+                return null;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            imageOutbox.discardStaged(staged, "DUPLICATE");
+            throw new IOException("Same image already exists in project: " + image.getProjectId(), e);
+        }
 
         return fileName;
     }
 
+    // 요청 경로에서는 삭제 표시와 삭제 대기열 기록만 한 트랜잭션으로 처리 (객체는 백그라운드에서 일괄 삭제)
+    @Transactional
     public void deleteImage(Long imageId) {
         Image image = imageRepository.findById(imageId)
             .orElseThrow(() -> new RuntimeException("Image not found with ID: " + imageId));
+        if ("Y".equals(image.getDelYn())) {
+            return;
+        }
+
+        image.setDelYn("Y");
+        imageRepository.save(image);
+        discardObject(image.getFileName(), renditionRepository.findByImageId(imageId), "DELETE");
+    }
 
-        minioService.deleteImage(image.getFileName());
-        minioService.deleteImage(image.getThumbnailFileName());
+    // 더 이상 쓰지 않는 원본과 렌디션 정리
+    // 블롭이면 참조만 반납 (마지막 참조면 블롭 삭제 시 공유 렌디션도 함께 삭제), 아니면 삭제 대기열에 등록
+    private void discardObject(String fileName, List<ImageRendition> renditions, String reason) {
+        List<String> renditionFileNames = renditions.stream().map(ImageRendition::getFileName).toList();
+        if (blobService.isBlob(fileName)) {
+            blobService.release(fileName);
+        } else {
+            objectReclaimQueue.enqueue(List.of(fileName), reason);
+            objectReclaimQueue.enqueue(renditionFileNames, reason);
+        }
+        renditionRepository.deleteAll(renditions);
+        imageCacheService.invalidate(List.of(fileName));
+        imageCacheService.invalidate(renditionFileNames);
+    }
+
+    // 썸네일 요청을 행과 함께 기록하고, 커밋 이후 이 노드가 먼저 이벤트를 가져가면 바로 워커 풀로 넘김
+    // (커밋 이후에 넘겨야 워커가 저장된 행을 조회할 수 있음, 전달 전에 죽으면 릴레이가 처리)
+    private void requestThumbnail(Long imageId, String projectId) {
+        OutboxEvent event = imageOutbox.requestThumbnail(imageId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (imageOutbox.claim(event.getId())) {
+                    dispatchThumbnail(imageId, projectId);
+                }
+            }
+        });
+    }
 
-        Optional<Image> imageToDelete = imageRepository.findById(imageId);
-        if (imageToDelete.isPresent()) {
-            image.setDelYn("Y");
-            imageRepository.save(image);
+    // 워커 풀 큐에서 프로젝트별 공정 큐잉 대상이 되도록 프로젝트를 붙여 제출
+    private void dispatchThumbnail(Long imageId, String projectId) {
+        try {
+            FairShareQueue.submitAs(projectId, () -> thumbnailService.generateThumbnailAsync(imageId));
+        } catch (Exception e) {
+            // 워커 풀이 가득 차 거절된 경우 PROCESSING 상태로 남아 선점 폴러가 다시 가져감
+            log.warn("Thumbnail dispatch rejected for image ID: {}", imageId, e);
         }
     }
 
+    // 커서는 클라이언트가 해석하지 않도록 불투명 문자열로 전달
+    private String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(("v1:" + lastId).getBytes(StandardCharsets.UTF_8));
+    }
 
+    private Long decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith("v1:")) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return Long.parseLong(decoded.substring(3));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
 
-    private String generateFileName(String projectId, String originalFileName) {
+    static String generateFileName(String projectId, String originalFileName) {
         String extension = originalFileName.substring(originalFileName.lastIndexOf("."));
         return String.format("projects/%s/%s%s", projectId, UUID.randomUUID().toString(), extension);
     }
 
-    private String calculateFileHash(byte[] fileBytes) throws IOException {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hashBytes = md.digest(fileBytes);
-            StringBuilder sb = new StringBuilder();
-            for (byte b : hashBytes) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new IOException("해시 계산 실패", e);
+    private String hashOf(MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return contentHasher.hash(in);
+        }
+    }
+
+    private String preHashOf(String pipeline, MultipartFile file) throws IOException {
+        return contentHasher.isPreHashEnabled()
+            ? pipelineMetrics.stage(pipeline, "pre_hash", () -> contentHasher.preHash(file, file.getSize()))
+            : null;
+    }
+
+    // MultipartFile 스트림을 DigestInputStream으로 감싸 업로드하면서 해시 계산
+    private String uploadAndHash(String fileName, MultipartFile file) throws IOException {
+        MessageDigest md = contentHasher.digest();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), md)) {
+            minioService.uploadMinioImage(fileName, in, file.getContentType());
         }
+        return contentHasher.toHex(md.digest());
     }
 }
\ No newline at end of file
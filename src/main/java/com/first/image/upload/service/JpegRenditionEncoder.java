@@ -0,0 +1,43 @@
+package com.first.image.upload.service;
+
+import java.util.Set;
+
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// JPEG: 품질 지정, 프로그레시브 인코딩 (JDK 인코더는 프로그레시브일 때 허프만 테이블을 최적화하므로 더 작음)
+@Component
+public class JpegRenditionEncoder extends ImageIoRenditionEncoder {
+
+    @Value("${thumbnail.encoder.jpeg.quality:0.75}")
+    private float quality;
+
+    @Value("${thumbnail.encoder.jpeg.progressive:true}")
+    private boolean progressive;
+
+    public JpegRenditionEncoder() {
+        super("jpeg");
+    }
+
+    @Override
+    public Set<String> formats() {
+        return Set.of("jpg", "jpeg");
+    }
+
+    @Override
+    public boolean keepsAlpha() {
+        return false;
+    }
+
+    @Override
+    protected ImageWriteParam writeParam(ImageWriter writer) {
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+        param.setProgressiveMode(progressive ? ImageWriteParam.MODE_DEFAULT : ImageWriteParam.MODE_DISABLED);
+        return param;
+    }
+}
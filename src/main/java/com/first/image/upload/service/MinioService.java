@@ -1,27 +1,89 @@
 package com.first.image.upload.service;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.ChecksumMode;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import software.amazon.awssdk.services.s3.model.GetUrlRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class MinioService {
 
     private final S3Client s3Client;
 
+    private final S3Presigner s3Presigner;
+
+    private final S3AsyncClient s3AsyncClient;
+
+    private final MeterRegistry meterRegistry;
+
     @Value("${minio.bucket}")
     private String bucketName;
 
+    // 스트리밍 업로드 시 요청당 사용하는 버퍼 크기 (S3 멀티파트 최소 파트 크기 5MB 이상)
+    @Value("${minio.upload.part-size:5242880}")
+    private int partSize;
+
+    // 현재 업로드 중인 요청들이 점유한 버퍼 바이트 합계
+    private final AtomicLong inFlightBufferBytes = new AtomicLong();
+
+    // MinIO 로 보내고 받은 바이트 수
+    private Counter uploadedBytes;
+
+    private Counter downloadedBytes;
+
+    @PostConstruct
+    void initMetrics() {
+        uploadedBytes = Counter.builder("minio.bytes").tag("direction", "upload").baseUnit("bytes").register(meterRegistry);
+        downloadedBytes = Counter.builder("minio.bytes").tag("direction", "download").baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("minio.upload.buffer", inFlightBufferBytes, AtomicLong::get).baseUnit("bytes").register(meterRegistry);
+    }
 
     public void uploadMinioImage(String fileName, byte[] data, String contentType) {
         PutObjectRequest putObjectRequest = PutObjectRequest.builder()
@@ -31,6 +93,47 @@ public class MinioService {
                 .build();
 
         s3Client.putObject(putObjectRequest, RequestBody.fromBytes(data));
+        uploadedBytes.increment(data.length);
+    }
+
+    // 입력 스트림을 한 번만 읽으며 partSize 버퍼 하나로 업로드 (파일 크기와 무관하게 메모리 고정)
+    public long uploadMinioImage(String fileName, InputStream input, String contentType) throws IOException {
+        byte[] buffer = new byte[partSize];
+        inFlightBufferBytes.addAndGet(partSize);
+        try {
+            int read = readFully(input, buffer);
+
+            // 1. 한 파트에 다 들어가면 단일 PUT
+            if (read < partSize) {
+                PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(fileName)
+                        .contentType(contentType)
+                        .build();
+                s3Client.putObject(putObjectRequest, requestBody(buffer, read));
+                uploadedBytes.increment(read);
+                return read;
+            }
+
+            // 2. 그 외에는 멀티파트 업로드
+            return uploadMultipart(fileName, input, contentType, buffer, read);
+        } finally {
+            inFlightBufferBytes.addAndGet(-partSize);
+        }
+    }
+
+    // 논블로킹 업로드 (호출 스레드를 점유하지 않음)
+    public CompletableFuture<Void> uploadMinioImageAsync(String fileName, byte[] data, String contentType) {
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(fileName)
+                .contentType(contentType)
+                .build();
+
+        return s3AsyncClient.putObject(putObjectRequest, AsyncRequestBody.fromBytes(data)).thenApply(response -> {
+            uploadedBytes.increment(data.length);
+            return null;
+        });
     }
 
     public byte[] downloadImage(String fileName) throws IOException {
@@ -40,12 +143,88 @@ public class MinioService {
                     .key(fileName)
                     .build();
             
-            return s3Client.getObject(getObjectRequest).readAllBytes();
+            byte[] data = s3Client.getObject(getObjectRequest).readAllBytes();
+            downloadedBytes.increment(data.length);
+            return data;
+        } catch (Exception e) {
+            throw new IOException("Failed to download image", e);
+        }
+    }
+
+    // 응답 스트림을 그대로 반환 (range 가 있으면 해당 구간만 요청, 닫는 책임은 호출자)
+    public InputStream openStream(String fileName, Long rangeStart, Long rangeEnd) throws IOException {
+        GetObjectRequest.Builder builder = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(fileName);
+        if (rangeStart != null) {
+            builder.range("bytes=" + rangeStart + "-" + rangeEnd);
+        }
+
+        try {
+            ResponseInputStream<GetObjectResponse> response = s3Client.getObject(builder.build());
+            downloadedBytes.increment(response.response().contentLength());
+            return response;
         } catch (Exception e) {
             throw new IOException("Failed to download image", e);
         }
     }
 
+    // 크기와 SHA-256 체크섬 헤더까지 서명하여, 선언한 내용과 다른 파일은 MinIO 가 거부하게 함
+    public PresignedPutObjectRequest presignUpload(String fileName, String contentType, long contentLength,
+                                                   String checksumSha256Base64, Duration expiry) {
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(fileName)
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .checksumSHA256(checksumSha256Base64)
+                .build();
+
+        return s3Presigner.presignPutObject(PutObjectPresignRequest.builder()
+                .signatureDuration(expiry)
+                .putObjectRequest(putObjectRequest)
+                .build());
+    }
+
+    // 객체 메타데이터 조회 (없으면 null)
+    public HeadObjectResponse headImage(String fileName) {
+        try {
+            return s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(fileName)
+                    .checksumMode(ChecksumMode.ENABLED)
+                    .build());
+        } catch (NoSuchKeyException e) {
+            return null;
+        }
+    }
+
+    // DeleteObjects 한 번에 최대 1000개 삭제, 실패한 키 목록 반환
+    public List<String> deleteImages(List<String> fileNames) {
+        if (fileNames.isEmpty()) {
+            return List.of();
+        }
+        List<ObjectIdentifier> objects = fileNames.stream()
+                .map(fileName -> ObjectIdentifier.builder().key(fileName).build())
+                .toList();
+
+        DeleteObjectsResponse response = s3Client.deleteObjects(DeleteObjectsRequest.builder()
+                .bucket(bucketName)
+                .delete(Delete.builder().objects(objects).quiet(true).build())
+                .build());
+        return response.errors().stream().map(S3Error::key).toList();
+    }
+
+    // 접두어 아래 객체를 페이지 단위로 나열
+    public void listImages(String prefix, Consumer<List<S3Object>> pageConsumer) {
+        ListObjectsV2Request request = ListObjectsV2Request.builder()
+                .bucket(bucketName)
+                .prefix(prefix)
+                .build();
+
+        s3Client.listObjectsV2Paginator(request).forEach(page -> pageConsumer.accept(page.contents()));
+    }
+
     public String getImageUrl(String fileName) {
         GetUrlRequest request = GetUrlRequest.builder()
                 .bucket(bucketName)
@@ -63,4 +242,66 @@ public class MinioService {
         
         s3Client.deleteObject(deleteObjectRequest);
     }
+
+    private long uploadMultipart(String fileName, InputStream input, String contentType,
+                                 byte[] buffer, int firstRead) throws IOException {
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(fileName)
+                .contentType(contentType)
+                .build()).uploadId();
+
+        List<CompletedPart> parts = new ArrayList<>();
+        long total = 0;
+        int read = firstRead;
+        try {
+            while (read > 0) {
+                int partNumber = parts.size() + 1;
+                String eTag = s3Client.uploadPart(UploadPartRequest.builder()
+                        .bucket(bucketName)
+                        .key(fileName)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength((long) read)
+                        .build(), requestBody(buffer, read)).eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+                uploadedBytes.increment(read);
+                total += read;
+                read = readFully(input, buffer);
+            }
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(fileName)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+            return total;
+        } catch (Exception e) {
+            log.warn("Aborting multipart upload for {} ({} parts sent)", fileName, parts.size());
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(fileName)
+                    .uploadId(uploadId)
+                    .build());
+            throw new IOException("Failed to upload image", e);
+        }
+    }
+
+    // 버퍼를 복사하지 않고 앞부분 length 바이트만 전송
+    private RequestBody requestBody(byte[] buffer, int length) {
+        return RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, length), length);
+    }
+
+    private int readFully(InputStream input, byte[] buffer) throws IOException {
+        int offset = 0;
+        while (offset < buffer.length) {
+            int n = input.read(buffer, offset, buffer.length - offset);
+            if (n < 0) {
+                break;
+            }
+            offset += n;
+        }
+        return offset;
+    }
 }
@@ -0,0 +1,108 @@
+package com.first.image.upload.service;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.first.image.upload.dto.NearDuplicate;
+import com.first.image.upload.entity.Image;
+import com.first.image.upload.repo.ImageRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// 프로젝트별 지각 해시 인덱스 (BK-트리): 처음 조회할 때 해당 프로젝트의 해시만 읽어 구성하고 이후에는 변경분만 반영
+// 노드마다 따로 유지하므로 다른 노드에서의 변경은 인덱스가 만료되어 다시 구성될 때 반영됨
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NearDuplicateIndex {
+
+    private final ImageRepository imageRepository;
+
+    private final MeterRegistry meterRegistry;
+
+    // 해밍 거리 기본값 (64비트 중), 요청마다 max-query-distance 까지 지정 가능
+    @Value("${dedup.perceptual.max-distance:10}")
+    private int defaultMaxDistance;
+
+    @Value("${dedup.perceptual.max-query-distance:16}")
+    private int maxQueryDistance;
+
+    @Value("${dedup.perceptual.index.max-projects:1000}")
+    private long maxProjects;
+
+    @Value("${dedup.perceptual.index.idle-minutes:30}")
+    private long idleMinutes;
+
+    private Cache<String, BkTree> trees;
+
+    @PostConstruct
+    void init() {
+        trees = Caffeine.newBuilder()
+                .maximumSize(maxProjects)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, trees, "nearDuplicateIndex");
+    }
+
+    public int getDefaultMaxDistance() {
+        return defaultMaxDistance;
+    }
+
+    // 자신은 제외, 거리순
+    public List<NearDuplicate> findNearDuplicates(Image image, int maxDistance) {
+        if (image.getPerceptualHash() == null || !"N".equals(image.getDelYn())) {
+            return List.of();
+        }
+        int distance = Math.max(0, Math.min(maxDistance, maxQueryDistance));
+        return trees.get(image.getProjectId(), this::load).search(image.getPerceptualHash(), distance).stream()
+                .filter(match -> !match.imageId().equals(image.getId()))
+                .toList();
+    }
+
+    // 커밋 후 반영 (구성 중인 인덱스가 있으면 구성이 끝난 뒤에 반영되어 누락되지 않음)
+    // hash 가 null 이면 인덱스에서 제외 (삭제, 수정 후 썸네일 생성 전)
+    public void onChange(String projectId, Long imageId, Long hash) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(projectId, imageId, hash);
+                }
+            });
+        } else {
+            apply(projectId, imageId, hash);
+        }
+    }
+
+    private void apply(String projectId, Long imageId, Long hash) {
+        trees.asMap().computeIfPresent(projectId, (id, tree) -> {
+            if (hash == null) {
+                tree.remove(imageId);
+            } else {
+                tree.put(imageId, hash);
+            }
+            return tree;
+        });
+    }
+
+    private BkTree load(String projectId) {
+        BkTree tree = new BkTree();
+        for (Object[] row : imageRepository.findPerceptualHashes(projectId)) {
+            tree.put((Long) row[0], (Long) row[1]);
+        }
+        log.info("Loaded near-duplicate index for project {} ({} images)", projectId, tree.size());
+        return tree;
+    }
+}
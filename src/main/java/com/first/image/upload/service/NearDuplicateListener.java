@@ -0,0 +1,32 @@
+package com.first.image.upload.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import com.first.image.upload.entity.Image;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+// 지각 해시 기록, 수정(해시 초기화), 삭제를 인덱스에 반영
+// 인덱스는 ImageRepository 를 쓰므로 EntityManagerFactory 생성 중에 만들지 않도록 처음 변경 시점에 가져옴
+@Component
+@RequiredArgsConstructor
+public class NearDuplicateListener {
+
+    private final ObjectProvider<NearDuplicateIndex> nearDuplicateIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Image image) {
+        Long hash = "N".equals(image.getDelYn()) ? image.getPerceptualHash() : null;
+        nearDuplicateIndex.getObject().onChange(image.getProjectId(), image.getId(), hash);
+    }
+
+    @PostRemove
+    public void onRemove(Image image) {
+        nearDuplicateIndex.getObject().onChange(image.getProjectId(), image.getId(), null);
+    }
+}
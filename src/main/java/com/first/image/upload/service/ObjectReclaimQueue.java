@@ -0,0 +1,67 @@
+package com.first.image.upload.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.first.image.upload.entity.ObjectDeletion;
+import com.first.image.upload.repo.ObjectDeletionRepository;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+
+// 삭제할 MinIO 객체 키를 DB 에 기록하고 리스 기반으로 선점하는 대기열
+@Service
+@RequiredArgsConstructor
+public class ObjectReclaimQueue {
+
+    private static final long MAX_BACKOFF_SECONDS = 3600;
+
+    private final ObjectDeletionRepository objectDeletionRepository;
+
+    @Value("${storage.reclaim.lease-seconds:120}")
+    private long leaseSeconds;
+
+    // 호출한 쪽 트랜잭션에 참여하여 행 변경과 함께 커밋됨
+    @Transactional
+    public void enqueue(Collection<String> fileNames, String reason) {
+        List<ObjectDeletion> deletions = fileNames.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .map(fileName -> ObjectDeletion.builder().fileName(fileName).reason(reason).build())
+                .toList();
+        objectDeletionRepository.saveAll(deletions);
+    }
+
+    @Transactional
+    public List<ObjectDeletion> claimBatch(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = objectDeletionRepository.lockDueDeletions(now, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        objectDeletionRepository.leaseDeletions(ids, now.plusSeconds(leaseSeconds));
+        return objectDeletionRepository.findAllById(ids);
+    }
+
+    @Transactional
+    public void complete(List<ObjectDeletion> deletions) {
+        objectDeletionRepository.deleteAllInBatch(deletions);
+    }
+
+    // 실패한 항목은 지수 백오프로 다시 예약
+    @Transactional
+    public void reschedule(List<ObjectDeletion> deletions) {
+        LocalDateTime now = LocalDateTime.now();
+        for (ObjectDeletion deletion : deletions) {
+            deletion.setAttempts(deletion.getAttempts() + 1);
+            long delay = Math.min(MAX_BACKOFF_SECONDS, 1L << Math.min(deletion.getAttempts(), 12));
+            deletion.setNextAttemptAt(now.plusSeconds(delay));
+        }
+        objectDeletionRepository.saveAll(deletions);
+    }
+}
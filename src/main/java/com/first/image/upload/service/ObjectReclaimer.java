@@ -0,0 +1,177 @@
+package com.first.image.upload.service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.first.image.upload.entity.ObjectDeletion;
+import com.first.image.upload.repo.BlobRepository;
+import com.first.image.upload.repo.ImageRenditionRepository;
+import com.first.image.upload.repo.ImageRepository;
+import com.first.image.upload.repo.ObjectDeletionRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+// 삭제 대기열을 DeleteObjects 로 일괄 처리하고, 주기적으로 버킷과 DB 를 대조하여 고아 객체를 등록
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ObjectReclaimer {
+
+    // S3 DeleteObjects 요청당 최대 키 수
+    private static final int MAX_DELETE_KEYS = 1000;
+
+    private final ObjectReclaimQueue reclaimQueue;
+
+    private final MinioService minioService;
+
+    private final ImageRepository imageRepository;
+
+    private final ImageRenditionRepository renditionRepository;
+
+    private final ObjectDeletionRepository objectDeletionRepository;
+
+    private final BlobRepository blobRepository;
+
+    private final BlobService blobService;
+
+    @Value("${storage.reclaim.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${storage.orphan-sweep.enabled:true}")
+    private boolean orphanSweepEnabled;
+
+    @Value("${storage.orphan-sweep.prefixes:projects/,blobs/,renders/}")
+    private List<String> orphanSweepPrefixes;
+
+    // 업로드 중이거나 직접 업로드 완료 전인 객체를 지우지 않도록 유예
+    @Value("${storage.orphan-sweep.grace-hours:24}")
+    private long orphanGraceHours;
+
+    @Scheduled(fixedDelayString = "${storage.reclaim.poll-interval-ms:10000}")
+    public void purge() {
+        int limit = Math.min(batchSize, MAX_DELETE_KEYS);
+        try {
+            List<ObjectDeletion> batch;
+            do {
+                batch = reclaimQueue.claimBatch(limit);
+                if (!batch.isEmpty()) {
+                    purgeBatch(batch);
+                }
+            } while (batch.size() == limit);
+        } catch (Exception e) {
+            log.error("Object reclamation failed", e);
+        }
+    }
+
+    private void purgeBatch(List<ObjectDeletion> batch) {
+        List<String> fileNames = batch.stream().map(ObjectDeletion::getFileName).distinct().toList();
+
+        // 다시 참조되고 있는 키는 지우지 않고 대기열에서만 제거
+        Set<String> referenced = referencedFileNames(fileNames);
+        List<String> keys = fileNames.stream()
+                .filter(fileName -> !referenced.contains(fileName))
+                .toList();
+
+        Set<String> failedKeys;
+        try {
+            // 블롭은 행을 잠근 상태에서 참조 수를 다시 확인하고 렌디션과 함께 삭제
+            BlobService.PurgeResult blobs = blobService.purge(keys);
+            failedKeys = new HashSet<>(blobs.failed());
+            failedKeys.addAll(minioService.deleteImages(keys.stream().filter(key -> !blobs.handled().contains(key)).toList()));
+        } catch (Exception e) {
+            log.warn("DeleteObjects failed for {} keys, rescheduling", keys.size(), e);
+            reclaimQueue.reschedule(batch);
+            return;
+        }
+
+        List<ObjectDeletion> done = new ArrayList<>();
+        List<ObjectDeletion> failed = new ArrayList<>();
+        for (ObjectDeletion deletion : batch) {
+            (failedKeys.contains(deletion.getFileName()) ? failed : done).add(deletion);
+        }
+        reclaimQueue.complete(done);
+        if (!failed.isEmpty()) {
+            reclaimQueue.reschedule(failed);
+        }
+        log.info("Reclaimed {} objects ({} skipped as referenced, {} failed)",
+                keys.size() - failedKeys.size(), referenced.size(), failedKeys.size());
+    }
+
+    @Scheduled(fixedDelayString = "${storage.orphan-sweep.interval-ms:3600000}",
+               initialDelayString = "${storage.orphan-sweep.initial-delay-ms:600000}")
+    public void sweepOrphans() {
+        if (!orphanSweepEnabled) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(orphanGraceHours, ChronoUnit.HOURS);
+        int[] found = {0};
+        try {
+            for (String prefix : orphanSweepPrefixes) {
+                minioService.listImages(prefix, page -> {
+                    List<String> candidates = page.stream()
+                            .filter(object -> object.lastModified().isBefore(cutoff))
+                            .map(S3Object::key)
+                            .toList();
+                    if (candidates.isEmpty()) {
+                        return;
+                    }
+                    Set<String> known = knownFileNames(candidates);
+                    List<String> orphans = candidates.stream().filter(key -> !known.contains(key)).toList();
+                    if (!orphans.isEmpty()) {
+                        reclaimQueue.enqueue(orphans, "ORPHAN");
+                        found[0] += orphans.size();
+                    }
+                });
+            }
+            log.info("Orphan sweep finished: {} orphaned objects queued for deletion", found[0]);
+        } catch (Exception e) {
+            log.error("Orphan sweep failed", e);
+        }
+    }
+
+    private Set<String> referencedFileNames(List<String> fileNames) {
+        Set<String> referenced = new HashSet<>(imageRepository.findLiveFileNames(fileNames));
+        referenced.addAll(renditionRepository.findReferencedFileNames(fileNames));
+        referenced.addAll(liveRenderKeys(fileNames));
+        return referenced;
+    }
+
+    // 요청 시점 렌디션은 행이 없으므로 같은 내용의 살아있는 이미지가 있으면 참조 중으로 봄
+    private List<String> liveRenderKeys(List<String> fileNames) {
+        Map<String, String> hashByKey = new HashMap<>();
+        for (String fileName : fileNames) {
+            String fileHash = RenderSpec.fileHashOf(fileName);
+            if (fileHash != null) {
+                hashByKey.put(fileName, fileHash);
+            }
+        }
+        if (hashByKey.isEmpty()) {
+            return List.of();
+        }
+        Set<String> liveHashes = new HashSet<>(imageRepository.findLiveFileHashes(new HashSet<>(hashByKey.values())));
+        return hashByKey.entrySet().stream()
+                .filter(entry -> liveHashes.contains(entry.getValue()))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    // 고아 판별 시에는 참조가 남은 블롭도 제외 (참조 0 인 블롭은 삭제 대기열이 처리)
+    private Set<String> knownFileNames(List<String> fileNames) {
+        Set<String> known = referencedFileNames(fileNames);
+        known.addAll(blobRepository.findExistingFileNames(fileNames));
+        known.addAll(objectDeletionRepository.findQueuedFileNames(fileNames));
+        return known;
+    }
+}
@@ -0,0 +1,68 @@
+package com.first.image.upload.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.first.image.upload.entity.OutboxEvent;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// 커밋 직후 전달되지 못한 아웃박스 이벤트를 선점하여 실행 (노드가 커밋 직후 죽은 경우 등)
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    private final ImageOutbox imageOutbox;
+
+    private final ThumbnailService thumbnailService;
+
+    @Value("${outbox.batch-size:100}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:5000}")
+    public void relay() {
+        try {
+            List<OutboxEvent> batch;
+            do {
+                batch = imageOutbox.claimBatch(batchSize);
+                if (!batch.isEmpty()) {
+                    relayBatch(batch);
+                }
+            } while (batch.size() == batchSize);
+        } catch (Exception e) {
+            log.error("Outbox relay failed", e);
+        }
+    }
+
+    private void relayBatch(List<OutboxEvent> batch) {
+        List<OutboxEvent> done = new ArrayList<>();
+        List<OutboxEvent> failed = new ArrayList<>();
+        for (OutboxEvent event : batch) {
+            try {
+                switch (event.getType()) {
+                    case THUMBNAIL_REQUESTED -> {
+                        thumbnailService.generateThumbnailAsync(event.getImageId());
+                        done.add(event);
+                    }
+                    // 정리와 이벤트 삭제가 한 트랜잭션이라 블롭 참조를 두 번 반납하지 않음
+                    case UPLOAD_STAGED -> imageOutbox.discardStaged(
+                            new ImageOutbox.StagedUpload(event.getId(), event.getFileName()), "STAGED_EXPIRED");
+                }
+            } catch (Exception e) {
+                log.warn("Outbox event {} ({}) failed, rescheduling", event.getId(), event.getType(), e);
+                failed.add(event);
+            }
+        }
+        imageOutbox.complete(done);
+        if (!failed.isEmpty()) {
+            imageOutbox.reschedule(failed);
+        }
+        log.info("Relayed {} outbox events ({} failed)", batch.size() - failed.size(), failed.size());
+    }
+}
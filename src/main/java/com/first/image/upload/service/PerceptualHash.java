@@ -0,0 +1,46 @@
+package com.first.image.upload.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+
+// 지각 해시 (dHash 64비트): 9x8 흑백으로 줄인 뒤 가로로 이웃한 픽셀의 밝기 증감을 비트로 기록
+// 다시 인코딩하거나 크기만 바꾼 사본은 해밍 거리가 작게 나옴
+public final class PerceptualHash {
+
+    private static final int WIDTH = 9;
+
+    private static final int HEIGHT = 8;
+
+    private PerceptualHash() {
+    }
+
+    // 썸네일 렌디션처럼 이미 축소된 이미지에서 계산 (원본을 다시 디코딩하지 않음)
+    public static long dHash(BufferedImage image) {
+        BufferedImage gray = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g2d = gray.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        // 투명 영역은 렌디션과 같이 흰 배경에 합성
+        g2d.setColor(Color.WHITE);
+        g2d.fillRect(0, 0, WIDTH, HEIGHT);
+        g2d.drawImage(image, 0, 0, WIDTH, HEIGHT, null);
+        g2d.dispose();
+
+        byte[] pixels = ((DataBufferByte) gray.getRaster().getDataBuffer()).getData();
+        long hash = 0;
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH - 1; x++) {
+                int left = pixels[y * WIDTH + x] & 0xFF;
+                int right = pixels[y * WIDTH + x + 1] & 0xFF;
+                hash = (hash << 1) | (left < right ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+}
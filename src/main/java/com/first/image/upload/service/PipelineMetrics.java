@@ -0,0 +1,38 @@
+package com.first.image.upload.service;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+
+// 업로드/수정/썸네일 처리의 전체 및 단계별 시간 측정
+// Observation 으로 기록하므로 타이머(히스토그램)가 생성되고, 트레이싱 브리지가 있으면 단계별 스팬도 생성됨
+@Component
+@RequiredArgsConstructor
+public class PipelineMetrics {
+
+    private final ObservationRegistry observationRegistry;
+
+    private final MeterRegistry meterRegistry;
+
+    // 전체 처리 (예: image.upload)
+    public <T, E extends Throwable> T observe(String pipeline, Observation.CheckedCallable<T, E> work) throws E {
+        return Observation.createNotStarted(pipeline, observationRegistry)
+                .observeChecked(work);
+    }
+
+    // 단계 (예: image.upload.stage{stage=store}), 진행 중인 전체 처리의 하위 스팬이 됨
+    public <T, E extends Throwable> T stage(String pipeline, String stage, Observation.CheckedCallable<T, E> work) throws E {
+        return Observation.createNotStarted(pipeline + ".stage", observationRegistry)
+                .contextualName(pipeline + " " + stage)
+                .lowCardinalityKeyValue("stage", stage)
+                .observeChecked(work);
+    }
+
+    // 중복 판정 결과 (new, duplicate, revived, race)
+    public void countDedup(String outcome) {
+        meterRegistry.counter("image.dedup", "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,32 @@
+package com.first.image.upload.service;
+
+import java.util.Set;
+
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+
+import org.springframework.stereotype.Component;
+
+// PNG: 무손실, 투명도 유지
+@Component
+public class PngRenditionEncoder extends ImageIoRenditionEncoder {
+
+    public PngRenditionEncoder() {
+        super("png");
+    }
+
+    @Override
+    public Set<String> formats() {
+        return Set.of("png");
+    }
+
+    @Override
+    public boolean keepsAlpha() {
+        return true;
+    }
+
+    @Override
+    protected ImageWriteParam writeParam(ImageWriter writer) {
+        return null;
+    }
+}
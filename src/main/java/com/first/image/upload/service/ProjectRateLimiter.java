@@ -0,0 +1,173 @@
+package com.first.image.upload.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// 프로젝트별 요청 수 / 바이트 수 토큰 버킷 (GCRA: 버킷마다 AtomicLong 하나를 CAS 로 갱신, 잠금 없음)
+// 가중치는 쿼터 배율이자 썸네일 공정 큐의 몫 (예: 대량 이관 프로젝트는 0.25)
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProjectRateLimiter {
+
+    static final String OTHER_PROJECTS = "other";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${admission.requests-per-second:20}")
+    private double requestsPerSecond;
+
+    @Value("${admission.request-burst:40}")
+    private double requestBurst;
+
+    @Value("${admission.bytes-per-second:104857600}")
+    private double bytesPerSecond;
+
+    // 한 요청의 바이트 비용은 이 값으로 잘리므로 최대 요청 크기보다 작아도 요청 자체는 통과 가능
+    @Value("${admission.byte-burst:419430400}")
+    private double byteBurst;
+
+    // "프로젝트:가중치" 목록 (없으면 1)
+    @Value("${admission.project-weights:}")
+    private List<String> projectWeightConfig;
+
+    @Value("${admission.idle-expiry-minutes:10}")
+    private long idleExpiryMinutes;
+
+    private final Map<String, Double> projectWeights = new HashMap<>();
+
+    private Cache<String, Quota> quotas;
+
+    // 거절되면 다시 시도할 수 있을 때까지의 시간
+    public record Decision(boolean admitted, Duration retryAfter, String limit) {
+
+        static final Decision ADMITTED = new Decision(true, Duration.ZERO, null);
+    }
+
+    @PostConstruct
+    void init() {
+        for (String entry : projectWeightConfig) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid project weight (expected project:weight): " + entry);
+            }
+            double weight = Double.parseDouble(entry.substring(separator + 1).trim());
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Project weight must be positive: " + entry);
+            }
+            projectWeights.put(entry.substring(0, separator).trim(), weight);
+        }
+        quotas = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(idleExpiryMinutes))
+                .build();
+        log.info("Project admission {} ({} req/s, {} bytes/s, weights {})",
+                enabled ? "enabled" : "disabled", requestsPerSecond, bytesPerSecond, projectWeights);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public double weightOf(String projectId) {
+        return projectWeights.getOrDefault(projectId, 1.0);
+    }
+
+    // 메트릭의 project 태그: 가중치를 설정한 프로젝트만 개별 태그, 나머지는 "other"
+    public String meterTagOf(String projectId) {
+        return projectWeights.containsKey(projectId) ? projectId : OTHER_PROJECTS;
+    }
+
+    // 요청 1건 + bytes 만큼 소비, 둘 중 하나라도 부족하면 소비하지 않고 거절
+    public Decision tryAcquire(String projectId, long bytes) {
+        if (!enabled) {
+            return Decision.ADMITTED;
+        }
+        Quota quota = quotas.get(projectId, this::newQuota);
+        long now = System.nanoTime();
+
+        long requestWait = quota.requests().tryAcquire(1, now);
+        if (requestWait > 0) {
+            return reject(projectId, "requests", requestWait);
+        }
+        if (bytes > 0) {
+            long byteWait = quota.bytes().tryAcquire(bytes, now);
+            if (byteWait > 0) {
+                quota.requests().refund(1);
+                return reject(projectId, "bytes", byteWait);
+            }
+        }
+        return Decision.ADMITTED;
+    }
+
+    private Decision reject(String projectId, String limit, long waitNanos) {
+        meterRegistry.counter("admission.rejected", "project", meterTagOf(projectId), "limit", limit).increment();
+        return new Decision(false, Duration.ofNanos(waitNanos), limit);
+    }
+
+    private Quota newQuota(String projectId) {
+        double weight = weightOf(projectId);
+        return new Quota(new Bucket(requestsPerSecond * weight, requestBurst * weight),
+                new Bucket(bytesPerSecond * weight, byteBurst * weight));
+    }
+
+    private record Quota(Bucket requests, Bucket bytes) {
+    }
+
+    // 이론적 도착 시각(TAT) 하나로 표현한 토큰 버킷: 비용만큼 TAT 를 미루고, TAT - 버스트 허용치가 현재보다 미래면 거절
+    static final class Bucket {
+
+        private final double nanosPerUnit;
+
+        private final double burst;
+
+        private final long tolerance;
+
+        private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+        Bucket(double ratePerSecond, double burst) {
+            this.nanosPerUnit = 1_000_000_000d / ratePerSecond;
+            this.burst = burst;
+            this.tolerance = (long) (burst * nanosPerUnit);
+        }
+
+        // 통과하면 0, 아니면 통과 가능할 때까지 남은 나노초
+        long tryAcquire(long cost, long now) {
+            long increment = (long) (Math.min(cost, burst) * nanosPerUnit);
+            while (true) {
+                long current = theoreticalArrival.get();
+                long next = Math.max(current, now) + increment;
+                long allowAt = next - tolerance;
+                if (allowAt > now) {
+                    return allowAt - now;
+                }
+                if (theoreticalArrival.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        void refund(long cost) {
+            theoreticalArrival.addAndGet(-(long) (Math.min(cost, burst) * nanosPerUnit));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.first.image.upload.service;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.first.image.upload.entity.Image;
+import com.first.image.upload.entity.ThumbnailStatus;
+
+// 아직 project_stats 에 반영하지 않은 프로젝트별 변경분 (LongAdder 라 업로드/썸네일 스레드가 경합 없이 더함)
+// 변경은 커밋된 뒤에만 더하고, 반영한 만큼만 빼므로 반영 중에 들어온 변경은 다음 반영으로 넘어감
+@Component
+public class ProjectStatsBuffer {
+
+    private static final ThumbnailStatus[] STATUSES = ThumbnailStatus.values();
+
+    // 프로젝트 수만큼만 유지 (반영 중인 변경분을 잃지 않도록 비어도 제거하지 않음)
+    private final Map<String, Delta> pending = new ConcurrentHashMap<>();
+
+    // 이미지 한 건이 집계에 기여하는 값 (삭제된 이미지는 null)
+    public record Contribution(String projectId, long fileSize, ThumbnailStatus status) {
+
+        public static Contribution of(Image image) {
+            if (!"N".equals(image.getDelYn()) || image.getProjectId() == null) {
+                return null;
+            }
+            ThumbnailStatus status = Objects.requireNonNullElse(image.getThumbnailStatus(), ThumbnailStatus.PROCESSING);
+            return new Contribution(image.getProjectId(), Objects.requireNonNullElse(image.getFileSize(), 0L), status);
+        }
+    }
+
+    // 반영할 값 (LongAdder 합계 스냅샷)
+    public record Snapshot(long images, long bytes, long[] statuses) {
+
+        public boolean isEmpty() {
+            if (images != 0 || bytes != 0) {
+                return false;
+            }
+            for (long count : statuses) {
+                if (count != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public long status(ThumbnailStatus status) {
+            return statuses[status.ordinal()];
+        }
+    }
+
+    // 트랜잭션 안이면 커밋 후에, 아니면 바로 더함
+    public void record(Contribution before, Contribution after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(before, after);
+                }
+            });
+        } else {
+            apply(before, after);
+        }
+    }
+
+    public Snapshot pending(String projectId) {
+        Delta delta = pending.get(projectId);
+        return delta == null ? new Snapshot(0, 0, new long[STATUSES.length]) : delta.snapshot();
+    }
+
+    public void forEachPending(BiConsumer<String, Snapshot> action) {
+        pending.forEach((projectId, delta) -> {
+            Snapshot snapshot = delta.snapshot();
+            if (!snapshot.isEmpty()) {
+                action.accept(projectId, snapshot);
+            }
+        });
+    }
+
+    // project_stats 에 반영(또는 재집계에 포함)된 만큼 차감
+    public void acknowledge(String projectId, Snapshot applied) {
+        Delta delta = pending.get(projectId);
+        if (delta != null) {
+            delta.add(-1, applied);
+        }
+    }
+
+    private void apply(Contribution before, Contribution after) {
+        if (before != null) {
+            delta(before.projectId()).add(-1, before);
+        }
+        if (after != null) {
+            delta(after.projectId()).add(1, after);
+        }
+    }
+
+    private Delta delta(String projectId) {
+        return pending.computeIfAbsent(projectId, id -> new Delta());
+    }
+
+    private static final class Delta {
+
+        private final LongAdder images = new LongAdder();
+
+        private final LongAdder bytes = new LongAdder();
+
+        private final LongAdder[] statuses = new LongAdder[STATUSES.length];
+
+        Delta() {
+            for (int i = 0; i < statuses.length; i++) {
+                statuses[i] = new LongAdder();
+            }
+        }
+
+        void add(int sign, Contribution contribution) {
+            images.add(sign);
+            bytes.add(sign * contribution.fileSize());
+            statuses[contribution.status().ordinal()].add(sign);
+        }
+
+        void add(int sign, Snapshot snapshot) {
+            images.add(sign * snapshot.images());
+            bytes.add(sign * snapshot.bytes());
+            for (int i = 0; i < statuses.length; i++) {
+                statuses[i].add(sign * snapshot.statuses()[i]);
+            }
+        }
+
+        Snapshot snapshot() {
+            long[] counts = new long[statuses.length];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = statuses[i].sum();
+            }
+            return new Snapshot(images.sum(), bytes.sum(), counts);
+        }
+    }
+}
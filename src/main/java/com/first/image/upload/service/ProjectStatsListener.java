@@ -0,0 +1,39 @@
+package com.first.image.upload.service;
+
+import org.springframework.stereotype.Component;
+
+import com.first.image.upload.entity.Image;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+// Image 저장/수정/삭제 시 로드 시점 값과 비교하여 프로젝트 통계 변경분 기록
+// (업로드, 수정, 삭제, 썸네일 완료/실패 모두 이 경로를 거침, JDBC 배치 저장만 직접 기록)
+@Component
+@RequiredArgsConstructor
+public class ProjectStatsListener {
+
+    private final ProjectStatsBuffer projectStatsBuffer;
+
+    @PostLoad
+    public void onLoad(Image image) {
+        image.setStatsSnapshot(ProjectStatsBuffer.Contribution.of(image));
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Image image) {
+        ProjectStatsBuffer.Contribution after = ProjectStatsBuffer.Contribution.of(image);
+        projectStatsBuffer.record(image.getStatsSnapshot(), after);
+        image.setStatsSnapshot(after);
+    }
+
+    @PostRemove
+    public void onRemove(Image image) {
+        projectStatsBuffer.record(image.getStatsSnapshot(), null);
+        image.setStatsSnapshot(null);
+    }
+}
@@ -0,0 +1,183 @@
+package com.first.image.upload.service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.first.image.upload.dto.ProjectStatsResponse;
+import com.first.image.upload.entity.ProjectStats;
+import com.first.image.upload.entity.ThumbnailStatus;
+import com.first.image.upload.repo.ProjectStatsRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// 프로젝트 통계: 조회는 project_stats 행 하나 + 이 노드의 미반영 변경분 (images 스캔 없음)
+// 재시작 중 잃은 변경분은 기동 시(및 주기적) 재집계로 바로잡음 (프로젝트별로, 변경이 잠잠한 프로젝트만)
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProjectStatsService {
+
+    private final ProjectStatsRepository projectStatsRepository;
+
+    private final ProjectStatsBuffer projectStatsBuffer;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // 반영과 재집계가 겹치지 않도록 (같은 변경분을 두 번 차감하지 않게)
+    private final Object flushLock = new Object();
+
+    // 이 시간 동안 변경이 없던 프로젝트만 재집계 (반영 주기보다 충분히 길게)
+    @Value("${stats.reconcile-settle-ms:60000}")
+    private long reconcileSettleMs;
+
+    public ProjectStatsResponse getStats(String projectId) {
+        ProjectStats stats = projectStatsRepository.findById(projectId)
+                .orElseGet(() -> ProjectStats.builder().projectId(projectId).build());
+        ProjectStatsBuffer.Snapshot pending = projectStatsBuffer.pending(projectId);
+
+        Map<ThumbnailStatus, Long> thumbnails = new EnumMap<>(ThumbnailStatus.class);
+        thumbnails.put(ThumbnailStatus.PROCESSING, stats.getProcessingCount() + pending.status(ThumbnailStatus.PROCESSING));
+        thumbnails.put(ThumbnailStatus.READY, stats.getReadyCount() + pending.status(ThumbnailStatus.READY));
+        thumbnails.put(ThumbnailStatus.FAILED, stats.getFailedCount() + pending.status(ThumbnailStatus.FAILED));
+        return new ProjectStatsResponse(projectId, stats.getImageCount() + pending.images(),
+                stats.getTotalBytes() + pending.bytes(), thumbnails, stats.getReconciledAt());
+    }
+
+    @Scheduled(fixedDelayString = "${stats.flush-interval-ms:1000}")
+    public void flush() {
+        synchronized (flushLock) {
+            Map<String, ProjectStatsBuffer.Snapshot> batch = new LinkedHashMap<>();
+            projectStatsBuffer.forEachPending(batch::put);
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    batch.forEach((projectId, delta) -> addDeltas(projectId, delta, now));
+                });
+                batch.forEach(projectStatsBuffer::acknowledge);
+            } catch (Exception e) {
+                // 차감하지 않았으므로 다음 반영에 포함됨 (다른 노드와 첫 행 저장이 겹친 경우 포함)
+                log.warn("Failed to flush stats for {} projects", batch.size(), e);
+            }
+        }
+    }
+
+    // fixedDelay 라 기동 직후 한 번 실행됨
+    // 다른 노드의 미반영 변경분은 알 수 없으므로, 최근 settle 동안 이미지 변경과 변경분 반영이 모두 없던 프로젝트만 덮어씀
+    // (그 전에 커밋된 변경은 모든 노드가 이미 반영했고, 집계 뒤의 변경은 집계에 없으므로 나중에 더해도 맞음)
+    @Scheduled(fixedDelayString = "${stats.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        synchronized (flushLock) {
+            try {
+                LocalDateTime cutoff = LocalDateTime.now().minus(reconcileSettleMs, ChronoUnit.MILLIS);
+                Map<String, ProjectStats> rows = aggregate();
+                for (ProjectStats stats : projectStatsRepository.findAll()) {
+                    rows.putIfAbsent(stats.getProjectId(), ProjectStats.builder().projectId(stats.getProjectId()).build());
+                }
+
+                int reconciled = 0;
+                for (ProjectStats exact : rows.values()) {
+                    if (projectStatsBuffer.pending(exact.getProjectId()).isEmpty() && reconcileProject(exact, cutoff)) {
+                        reconciled++;
+                    }
+                }
+                log.info("Reconciled stats for {} of {} projects", reconciled, rows.size());
+            } catch (Exception e) {
+                log.error("Failed to reconcile project stats", e);
+            }
+        }
+    }
+
+    // 프로젝트 하나를 짧은 트랜잭션으로 덮어씀, 최근 변경이 있거나 집계 뒤 다른 노드가 반영했으면 건너뜀
+    private boolean reconcileProject(ProjectStats exact, LocalDateTime cutoff) {
+        String projectId = exact.getProjectId();
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                // 집계 뒤에 커밋된 변경도 여기서 걸러짐
+                LocalDateTime lastChange = projectStatsRepository.findLastImageChange(projectId);
+                if (lastChange != null && !lastChange.isBefore(cutoff)) {
+                    return false;
+                }
+                LocalDateTime now = LocalDateTime.now();
+                Optional<ProjectStats> current = projectStatsRepository.findById(projectId);
+                if (current.isEmpty()) {
+                    exact.setReconciledAt(now);
+                    exact.setUpdatedAt(now);
+                    projectStatsRepository.save(exact);
+                    return true;
+                }
+                LocalDateTime flushedAt = current.get().getUpdatedAt();
+                if (flushedAt != null && !flushedAt.isBefore(cutoff)) {
+                    return false;
+                }
+                return projectStatsRepository.overwrite(projectId, exact.getImageCount(), exact.getTotalBytes(),
+                        exact.getProcessingCount(), exact.getReadyCount(), exact.getFailedCount(), now, flushedAt) == 1;
+            }));
+        } catch (Exception e) {
+            // 다른 노드가 같은 프로젝트의 첫 행을 먼저 저장한 경우 등, 다음 재집계에서 다시 시도
+            log.warn("Failed to reconcile stats for project {}", projectId, e);
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private void addDeltas(String projectId, ProjectStatsBuffer.Snapshot delta, LocalDateTime now) {
+        int updated = projectStatsRepository.addDeltas(projectId, delta.images(), delta.bytes(),
+                delta.status(ThumbnailStatus.PROCESSING), delta.status(ThumbnailStatus.READY),
+                delta.status(ThumbnailStatus.FAILED), now);
+        if (updated == 0) {
+            projectStatsRepository.save(ProjectStats.builder()
+                    .projectId(projectId)
+                    .imageCount(delta.images())
+                    .totalBytes(delta.bytes())
+                    .processingCount(delta.status(ThumbnailStatus.PROCESSING))
+                    .readyCount(delta.status(ThumbnailStatus.READY))
+                    .failedCount(delta.status(ThumbnailStatus.FAILED))
+                    .updatedAt(now)
+                    .build());
+        }
+    }
+
+    private Map<String, ProjectStats> aggregate() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, ProjectStats> rows = new HashMap<>();
+        for (Object[] row : projectStatsRepository.aggregateLiveImages()) {
+            String projectId = (String) row[0];
+            ThumbnailStatus status = (ThumbnailStatus) row[1];
+            long count = ((Number) row[2]).longValue();
+            long bytes = ((Number) row[3]).longValue();
+
+            ProjectStats stats = rows.computeIfAbsent(projectId, id -> ProjectStats.builder()
+                    .projectId(id)
+                    .reconciledAt(now)
+                    .updatedAt(now)
+                    .build());
+            stats.setImageCount(stats.getImageCount() + count);
+            stats.setTotalBytes(stats.getTotalBytes() + bytes);
+            switch (status) {
+                case PROCESSING -> stats.setProcessingCount(count);
+                case READY -> stats.setReadyCount(count);
+                case FAILED -> stats.setFailedCount(count);
+            }
+        }
+        return rows;
+    }
+}
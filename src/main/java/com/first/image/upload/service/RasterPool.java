@@ -0,0 +1,47 @@
+package com.first.image.upload.service;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+
+// 워커 스레드별 축소용 래스터: 배열 2개를 번갈아 사용 (직전 단계 결과를 읽으면서 다른 쪽에 그림)
+// 반환된 이미지는 같은 스레드에서 canvas 를 두 번 더 호출하기 전까지만 유효
+final class RasterPool {
+
+    private static final int[] RGB_MASKS = {0xff0000, 0xff00, 0xff};
+
+    private static final int[] ARGB_MASKS = {0xff0000, 0xff00, 0xff, 0xff000000};
+
+    private static final DirectColorModel RGB = new DirectColorModel(24, 0xff0000, 0xff00, 0xff);
+
+    private static final ColorModel ARGB = ColorModel.getRGBdefault();
+
+    private final int maxPixels;
+
+    private final int[][] slots = new int[2][];
+
+    private int next;
+
+    RasterPool(int maxPixels) {
+        this.maxPixels = maxPixels;
+    }
+
+    // 이전 내용이 남아 있으므로 그리는 쪽에서 전체를 덮어써야 함
+    BufferedImage canvas(int width, int height, boolean alpha) {
+        int pixels = width * height;
+        if (pixels > maxPixels) {
+            return new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        }
+        int slot = next;
+        next ^= 1;
+        if (slots[slot] == null || slots[slot].length < pixels) {
+            slots[slot] = new int[pixels];
+        }
+        WritableRaster raster = Raster.createPackedRaster(new DataBufferInt(slots[slot], pixels),
+                width, height, width, alpha ? ARGB_MASKS : RGB_MASKS, null);
+        return new BufferedImage(alpha ? ARGB : RGB, raster, false, null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.first.image.upload.service;
+
+// 요청 시점 렌디션 동시 생성 한도 초과 (잠시 후 다시 요청)
+public class RenderCapacityExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RenderCapacityExceededException(long retryAfterSeconds) {
+        super("Render capacity exceeded, retry after " + retryAfterSeconds + "s");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
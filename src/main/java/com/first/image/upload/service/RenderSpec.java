@@ -0,0 +1,27 @@
+package com.first.image.upload.service;
+
+// 요청 시점 렌디션 (가로, 세로, 맞춤 방식, 포맷), 0 인 변은 비율에 맞춰 결정
+public record RenderSpec(int width, int height, Fit fit, String format) {
+
+    public static final String KEY_PREFIX = "renders/";
+
+    public enum Fit {
+        CONTAIN, // 박스 안에 비율 유지
+        COVER    // 박스를 채우고 가운데를 잘라냄
+    }
+
+    // 내용 해시 기준 키: 같은 내용이면 프로젝트와 무관하게 재사용되고, 이미지가 바뀌면 키도 바뀜
+    public String objectKey(String fileHash) {
+        return KEY_PREFIX + fileHash + "/" + width + "x" + height + "-" + fit.name().toLowerCase() + "." + format;
+    }
+
+    // 렌디션 키에서 원본 내용 해시 추출 (렌디션 키가 아니면 null)
+    public static String fileHashOf(String key) {
+        int slash = key.indexOf('/', KEY_PREFIX.length());
+        return key.startsWith(KEY_PREFIX) && slash > 0 ? key.substring(KEY_PREFIX.length(), slash) : null;
+    }
+
+    public String contentType() {
+        return RenditionSpec.contentTypeOf(format);
+    }
+}
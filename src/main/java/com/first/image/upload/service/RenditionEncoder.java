@@ -0,0 +1,21 @@
+package com.first.image.upload.service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Set;
+
+// 렌디션 포맷별 인코더 (빈으로 등록하면 ThumbnailEncoder 가 포맷 이름으로 선택)
+public interface RenditionEncoder {
+
+    // 렌디션 설정에 쓰는 포맷 이름 (jpg, png, webp ...)
+    Set<String> formats();
+
+    // 인코더 라이브러리(플러그인)를 사용할 수 있는지
+    boolean isAvailable();
+
+    // 투명도를 유지할 수 있는 포맷인지 (아니면 흰 배경에 합성)
+    boolean keepsAlpha();
+
+    void encode(BufferedImage image, OutputStream out) throws IOException;
+}
@@ -0,0 +1,27 @@
+package com.first.image.upload.service;
+
+// 썸네일 렌디션 설정 (이름, 최대 변 길이, 출력 포맷)
+public record RenditionSpec(String name, int size, String format) {
+
+    public String contentType() {
+        return contentTypeOf(format);
+    }
+
+    public static String contentTypeOf(String format) {
+        return switch (format) {
+            case "png" -> "image/png";
+            case "webp" -> "image/webp";
+            default -> "image/jpeg";
+        };
+    }
+
+    // "thumb:150:jpg" 형식 파싱
+    public static RenditionSpec parse(String value) {
+        String[] parts = value.trim().split(":");
+        if (parts.length < 2) {
+            throw new IllegalArgumentException("Invalid rendition spec: " + value);
+        }
+        String format = parts.length > 2 ? parts[2].toLowerCase() : "jpg";
+        return new RenditionSpec(parts[0], Integer.parseInt(parts[1]), format);
+    }
+}
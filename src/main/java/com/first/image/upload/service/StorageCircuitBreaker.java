@@ -0,0 +1,114 @@
+package com.first.image.upload.service;
+
+import java.time.Clock;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// MinIO 상태 회로 차단기: 연속 실패가 쌓이면 열려서 썸네일 디스패치를 멈추고,
+// 대기 시간 후 한 건씩 시험하다가 성공하면 닫힌 뒤 일정 시간 동안 처리량을 점진적으로 늘림
+// (MinIO 호출 결과는 S3 클라이언트 인터셉터가 기록)
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StorageCircuitBreaker {
+
+    public enum State {
+        CLOSED,     // 정상
+        OPEN,       // 차단 (디스패치 중지)
+        HALF_OPEN   // 시험 중 (폴링마다 1건)
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${storage.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${storage.circuit-breaker.open-seconds:30}")
+    private long openSeconds;
+
+    // 닫힌 직후 이 시간 동안 디스패치 수를 0 → 전체로 선형 증가
+    @Value("${storage.circuit-breaker.recovery-ramp-seconds:60}")
+    private long recoveryRampSeconds;
+
+    // 현재 시각은 clock 으로만 읽음 (테스트에서 바꿔 끼움)
+    private Clock clock = Clock.systemUTC();
+
+    private State state = State.CLOSED;
+
+    private int consecutiveFailures;
+
+    private Instant openedAt = Instant.EPOCH;
+
+    private Instant closedAt = Instant.EPOCH;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("storage.circuit.state", this, breaker -> breaker.state().ordinal())
+                .description("0=CLOSED, 1=OPEN, 2=HALF_OPEN")
+                .register(meterRegistry);
+    }
+
+    public synchronized State state() {
+        if (state == State.OPEN && !clock.instant().isBefore(retryAt())) {
+            state = State.HALF_OPEN;
+            log.info("Storage circuit half-open, probing MinIO");
+        }
+        return state;
+    }
+
+    public boolean isOpen() {
+        return state() == State.OPEN;
+    }
+
+    // 열린 상태에서 다음 시험 시각
+    public synchronized Instant retryAt() {
+        return openedAt.plusSeconds(openSeconds);
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        if (state != State.CLOSED) {
+            state = State.CLOSED;
+            closedAt = clock.instant();
+            log.info("Storage circuit closed, draining thumbnail backlog over {}s", recoveryRampSeconds);
+        }
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = clock.instant();
+            log.warn("Storage circuit opened after {} consecutive failures, pausing thumbnail dispatch for {}s",
+                    consecutiveFailures, openSeconds);
+        }
+    }
+
+    // 이번 폴링에서 디스패치할 수 있는 작업 수
+    public int dispatchPermits(int requested) {
+        State current = state();
+        if (current == State.OPEN || requested <= 0) {
+            return 0;
+        }
+        if (current == State.HALF_OPEN) {
+            return 1;
+        }
+        long elapsedMillis;
+        synchronized (this) {
+            elapsedMillis = clock.millis() - closedAt.toEpochMilli();
+        }
+        long rampMillis = recoveryRampSeconds * 1000;
+        if (elapsedMillis >= rampMillis) {
+            return requested;
+        }
+        return (int) Math.max(1, requested * elapsedMillis / rampMillis);
+    }
+}
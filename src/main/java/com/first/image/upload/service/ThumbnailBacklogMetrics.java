@@ -0,0 +1,54 @@
+package com.first.image.upload.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.first.image.upload.entity.ThumbnailStatus;
+import com.first.image.upload.repo.ProjectStatsRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// 썸네일 상태별 이미지 수 게이지 (스크레이프마다 DB 를 조회하지 않도록 주기적으로 집계한 값을 노출)
+// images 를 스캔하지 않고 project_stats 의 프로젝트별 건수를 더함 (반영 주기만큼 늦을 수 있음)
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ThumbnailBacklogMetrics {
+
+    private final ProjectStatsRepository projectStatsRepository;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<ThumbnailStatus, AtomicLong> counts = new EnumMap<>(ThumbnailStatus.class);
+
+    @PostConstruct
+    void init() {
+        for (ThumbnailStatus status : ThumbnailStatus.values()) {
+            AtomicLong count = new AtomicLong();
+            counts.put(status, count);
+            Gauge.builder("thumbnail.backlog", count, AtomicLong::get)
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${thumbnail.metrics.backlog-refresh-ms:15000}")
+    public void refresh() {
+        try {
+            Object[] sums = projectStatsRepository.sumThumbnailCounts().get(0);
+            counts.get(ThumbnailStatus.PROCESSING).set(((Number) sums[0]).longValue());
+            counts.get(ThumbnailStatus.READY).set(((Number) sums[1]).longValue());
+            counts.get(ThumbnailStatus.FAILED).set(((Number) sums[2]).longValue());
+        } catch (Exception e) {
+            log.warn("Failed to refresh thumbnail backlog metrics", e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.first.image.upload.service;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+// 렌디션 포맷에 맞는 인코더 선택 + 워커 스레드별 출력 버퍼 재사용
+@Slf4j
+@Component
+public class ThumbnailEncoder {
+
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    // 이보다 커진 버퍼는 스레드에 계속 붙잡아 두지 않음
+    private static final int MAX_RETAINED_BUFFER_SIZE = 4 * 1024 * 1024;
+
+    private final Map<String, RenditionEncoder> encoders = new HashMap<>();
+
+    private final ThreadLocal<ByteArrayOutputStream> buffers =
+            ThreadLocal.withInitial(() -> new ByteArrayOutputStream(INITIAL_BUFFER_SIZE));
+
+    public ThumbnailEncoder(List<RenditionEncoder> encoders) {
+        for (RenditionEncoder encoder : encoders) {
+            if (!encoder.isAvailable()) {
+                log.warn("Rendition encoder unavailable: {}", encoder.formats());
+                continue;
+            }
+            encoder.formats().forEach(format -> this.encoders.put(format, encoder));
+        }
+    }
+
+    public RenditionEncoder encoderFor(String format) {
+        RenditionEncoder encoder = encoders.get(format);
+        if (encoder == null) {
+            throw new IllegalArgumentException("Unsupported rendition format: " + format);
+        }
+        return encoder;
+    }
+
+    public byte[] encode(BufferedImage image, String format) throws IOException {
+        RenditionEncoder encoder = encoderFor(format);
+        ByteArrayOutputStream out = buffers.get();
+        out.reset();
+        try {
+            encoder.encode(image, out);
+            return out.toByteArray();
+        } finally {
+            if (out.size() > MAX_RETAINED_BUFFER_SIZE) {
+                buffers.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.first.image.upload.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import com.first.image.upload.dto.ThumbnailJob;
+
+import lombok.extern.slf4j.Slf4j;
+
+// 주기적으로 썸네일 작업을 선점하여 워커 풀에 넘김 (노드 수만큼 병렬 처리)
+@Slf4j
+@Component
+public class ThumbnailJobPoller {
+
+    private final ThumbnailJobQueue jobQueue;
+
+    private final ThumbnailService thumbnailService;
+
+    private final ThreadPoolTaskExecutor thumbnailExecutor;
+
+    private final StorageCircuitBreaker storageCircuitBreaker;
+
+    @Value("${thumbnail.queue.batch-size:20}")
+    private int batchSize;
+
+    public ThumbnailJobPoller(ThumbnailJobQueue jobQueue, ThumbnailService thumbnailService,
+                              @Qualifier("thumbnailExecutor") ThreadPoolTaskExecutor thumbnailExecutor,
+                              StorageCircuitBreaker storageCircuitBreaker) {
+        this.jobQueue = jobQueue;
+        this.thumbnailService = thumbnailService;
+        this.thumbnailExecutor = thumbnailExecutor;
+        this.storageCircuitBreaker = storageCircuitBreaker;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOwnLeases() {
+        int released = jobQueue.releaseOwnLeases();
+        if (released > 0) {
+            log.info("Released {} thumbnail leases held before restart", released);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${thumbnail.queue.poll-interval-ms:5000}")
+    public void poll() {
+        try {
+            // 워커 큐에 남은 자리만큼만 선점 (나머지는 다른 노드가 가져감)
+            // MinIO 차단 중이면 선점하지 않고, 복구 직후에는 회로 차단기가 허용하는 만큼만 점진적으로 가져감
+            int capacity = thumbnailExecutor.getThreadPoolExecutor().getQueue().remainingCapacity();
+            int permits = storageCircuitBreaker.dispatchPermits(Math.min(batchSize, capacity));
+            List<ThumbnailJob> jobs = jobQueue.claimBatch(permits);
+            if (jobs.isEmpty()) {
+                return;
+            }
+
+            log.info("Claimed {} thumbnail jobs", jobs.size());
+            for (ThumbnailJob job : jobs) {
+                try {
+                    FairShareQueue.submitAs(job.projectId(), () -> thumbnailService.generateThumbnailAsync(job.imageId()));
+                } catch (TaskRejectedException e) {
+                    // 사이에 요청 경로 제출로 큐가 찬 경우: 남은 작업은 선점이 만료된 뒤 다시 가져감
+                    log.warn("Thumbnail worker queue full, leaving remaining claimed jobs to lease expiry");
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Thumbnail job polling failed", e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.first.image.upload.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.first.image.upload.dto.ThumbnailJob;
+import com.first.image.upload.repo.ImageRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// images 테이블의 PROCESSING 행을 리스 기반으로 선점하는 DB 작업 큐
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ThumbnailJobQueue {
+
+    private final ImageRepository imageRepository;
+
+    // 노드 식별자 (고정값을 주면 재시작 시 이전 리스를 즉시 회수)
+    @Value("${thumbnail.queue.node-id:}")
+    private String nodeId;
+
+    @Value("${thumbnail.queue.lease-seconds:300}")
+    private long leaseSeconds;
+
+    // 일시적 실패 재시도: 시도 횟수(retryCount)는 DB 한 곳에서만 관리
+    @Value("${thumbnail.retry.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${thumbnail.retry.base-delay-ms:2000}")
+    private long retryBaseDelayMs;
+
+    @Value("${thumbnail.retry.max-delay-ms:600000}")
+    private long retryMaxDelayMs;
+
+    @PostConstruct
+    void init() {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = UUID.randomUUID().toString();
+        }
+        log.info("Thumbnail job queue node ID: {}", nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public LocalDateTime newLeaseExpiry() {
+        return LocalDateTime.now().plusSeconds(leaseSeconds);
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    // 지수 백오프의 절반 + 무작위 절반 (같은 시점에 실패한 작업들이 한꺼번에 다시 몰리지 않게 분산)
+    public LocalDateTime nextAttemptAt(int failedAttempts) {
+        long delay = Math.min(retryMaxDelayMs, retryBaseDelayMs << Math.min(Math.max(failedAttempts - 1, 0), 20));
+        long jittered = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        return LocalDateTime.now().plusNanos(jittered * 1_000_000);
+    }
+
+    // 잠금 → 리스 기록을 한 트랜잭션으로 처리하여 노드 간 중복 선점 방지
+    @Transactional
+    public List<ThumbnailJob> claimBatch(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        List<Long> ids = imageRepository.lockClaimableThumbnailJobs(maxAttempts, LocalDateTime.now(), limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<ThumbnailJob> jobs = imageRepository.findThumbnailJobs(ids);
+        imageRepository.leaseThumbnailJobs(ids, nodeId, newLeaseExpiry());
+        return jobs;
+    }
+
+    @Transactional
+    public int releaseOwnLeases() {
+        return imageRepository.releaseThumbnailLeases(nodeId);
+    }
+}
@@ -2,23 +2,39 @@ package com.first.image.upload.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
+import com.first.image.upload.dto.NearDuplicate;
 import com.first.image.upload.entity.Image;
+import com.first.image.upload.entity.ImageRendition;
 import com.first.image.upload.entity.ThumbnailStatus;
+import com.first.image.upload.repo.ImageRenditionRepository;
 import com.first.image.upload.repo.ImageRepository;
 
-import javax.imageio.ImageIO;
+import jakarta.annotation.PostConstruct;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 
+import java.awt.AlphaComposite;
+import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+import javax.imageio.IIOException;
 
 @Slf4j
 @Service
@@ -29,93 +45,377 @@ public class ThumbnailService {
     
     @Autowired
     private MinioService minioService;
+
+    @Autowired
+    private ImageRenditionRepository renditionRepository;
+
+    @Autowired
+    private ImageDecoder imageDecoder;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    @Autowired
+    private BlobService blobService;
+
+    @Autowired
+    private ThumbnailEncoder thumbnailEncoder;
+
+    @Autowired
+    private ThumbnailJobQueue jobQueue;
+
+    @Autowired
+    private StorageCircuitBreaker storageCircuitBreaker;
+
+    @Autowired
+    private NearDuplicateIndex nearDuplicateIndex;
+
+    // 리사이즈는 코어 수로 제한된 CPU 풀에서 실행
+    @Autowired
+    @Qualifier("thumbnailCpuExecutor")
+    private ThreadPoolTaskExecutor cpuExecutor;
+
+    // "이름:최대변:포맷" 목록
+    @Value("${thumbnail.renditions:thumb:150:jpg}")
+    private List<String> renditionConfig;
+
+    // thumbnailFileName 컬럼에 기록할 대표 렌디션
+    @Value("${thumbnail.primary-rendition:thumb}")
+    private String primaryRendition;
+
+    // 축소용 래스터를 워커 스레드마다 재사용할 최대 픽셀 수 (더 크면 매번 새로 할당)
+    @Value("${thumbnail.raster-pool.max-pixels:2097152}")
+    private int rasterPoolMaxPixels;
+
+    private final ThreadLocal<RasterPool> rasterPools = ThreadLocal.withInitial(() -> new RasterPool(rasterPoolMaxPixels));
+
+    private List<RenditionSpec> renditions;
+
+    @PostConstruct
+    void initRenditions() {
+        renditions = renditionConfig.stream()
+            .map(RenditionSpec::parse)
+            .sorted(Comparator.comparingInt(RenditionSpec::size).reversed())
+            .toList();
+        // 인코더가 없는 포맷이면 기동 시점에 실패
+        renditions.forEach(spec -> thumbnailEncoder.encoderFor(spec.format()));
+        log.info("Thumbnail renditions: {}", renditions);
+    }
+
+    public List<RenditionSpec> getRenditions() {
+        return renditions;
+    }
+
+    public String getPrimaryRendition() {
+        return primaryRendition;
+    }
+
+    public record RenderedRendition(RenditionSpec spec, byte[] data, int width, int height) {
+    }
+
+    // 렌디션 + 가장 작은 렌디션에서 계산한 지각 해시
+    public record RenderedImage(List<RenderedRendition> renditions, long perceptualHash) {
+    }
     
+    // 실패한 작업은 워커를 붙잡고 재시도하지 않고 다음 시도 시각을 기록해 두면 폴러가 다시 가져감
     @Async("thumbnailExecutor")
-    @Retryable(
-        value = {Exception.class},
-        maxAttempts = 3,
-        backoff = @Backoff(delay = 1000, multiplier = 2)
-    )
     public void generateThumbnailAsync(Long imageId) throws IOException {
+        pipelineMetrics.observe("thumbnail.generate", () -> {
+            generateThumbnail(imageId);
+            return null;
+        });
+    }
+
+    private void generateThumbnail(Long imageId) throws IOException {
         try {
             log.info("Starting thumbnail generation for image ID: {}", imageId);
             
             // 1. 원본 이미지 정보 조회
             Image image = imageRepository.findById(imageId)
                 .orElseThrow(() -> new RuntimeException("Image not found with ID: " + imageId));
+
+            // 이미 처리된 작업이면 건너뜀 (리스 만료 후 중복 선점된 경우)
+            if (image.getThumbnailStatus() != ThumbnailStatus.PROCESSING) {
+                log.info("Thumbnail already {} for image ID: {}", image.getThumbnailStatus(), imageId);
+                return;
+            }
+
+            // MinIO 차단 중이면 시도 횟수를 쓰지 않고 차단이 풀리는 시각까지 미룸
+            if (storageCircuitBreaker.isOpen()) {
+                park(image, storageCircuitBreaker.retryAt());
+                return;
+            }
+
+            // 같은 블롭을 공유하는 이미지의 렌디션이 이미 있으면 다시 만들지 않고 행만 복사
+            if (blobService.isBlob(image.getFileName())) {
+                List<ImageRendition> shared = renditionRepository.findSharedRenditions(image.getFileName(), imageId);
+                if (!shared.isEmpty()) {
+                    Long perceptualHash = imageRepository.findFirstByFileNameAndIdNotAndPerceptualHashIsNotNull(image.getFileName(), imageId)
+                        .map(Image::getPerceptualHash)
+                        .orElse(null);
+                    complete(image, shared.stream().map(r -> copyRendition(r, imageId)).toList(), perceptualHash);
+                    log.info("Reused {} shared renditions for image ID: {}", shared.size(), imageId);
+                    return;
+                }
+            }
             
-            // 2. 원본 이미지 다운로드
-            byte[] originalImageData = minioService.downloadImage(image.getFileName());
+            // 2. 원본 이미지 다운로드 (렌디션 개수와 무관하게 1회)
+            byte[] originalImageData = pipelineMetrics.stage("thumbnail.generate", "download",
+                () -> minioService.downloadImage(image.getFileName()));
             
-            // 3. 썸네일 생성 (150x150)
-            byte[] thumbnailData = createThumbnail(originalImageData, 150, 150);
+            // 3. 한 번 디코딩하여 모든 렌디션 생성 (큰 것부터 순차 축소), 지각 해시도 같은 디코딩 결과에서 계산
+            RenderedImage rendered = pipelineMetrics.stage("thumbnail.generate", "render",
+                () -> renderOnCpuPool(originalImageData));
             
-            // 4. 썸네일 S3 업로드
-            String thumbnailFileName = generateThumbnailFileName(image.getProjectId(), image.getFileName());
-            minioService.uploadMinioImage(thumbnailFileName, thumbnailData, "image/jpeg");
+            // 4. 렌디션 S3 동시 업로드 (비동기 클라이언트, 추가 스레드 없음)
+            String baseName = image.getFileName().substring(0, image.getFileName().lastIndexOf('.'));
+            List<CompletableFuture<Void>> uploads = new ArrayList<>();
+            List<ImageRendition> renditionRows = new ArrayList<>();
+            for (RenderedRendition r : rendered.renditions()) {
+                String renditionFileName = generateRenditionFileName(baseName, r.spec());
+                uploads.add(minioService.uploadMinioImageAsync(renditionFileName, r.data(), r.spec().contentType()));
+                renditionRows.add(ImageRendition.builder()
+                    .imageId(imageId)
+                    .name(r.spec().name())
+                    .fileName(renditionFileName)
+                    .format(r.spec().format())
+                    .width(r.width())
+                    .height(r.height())
+                    .fileSize((long) r.data().length)
+                    .build());
+            }
+            pipelineMetrics.stage("thumbnail.generate", "upload", () -> {
+                awaitUploads(uploads);
+                return null;
+            });
             
             // 5. DB 상태 업데이트
-            image.setThumbnailFileName(thumbnailFileName);
-            image.setThumbnailStatus(ThumbnailStatus.READY);
-            imageRepository.save(image);
+            complete(image, renditionRows, rendered.perceptualHash());
             
             log.info("Thumbnail generation completed for image ID: {}", imageId);
             
         } catch (Exception e) {
             log.error("Thumbnail generation failed for image ID: {}", imageId, e);
             handleThumbnailFailure(imageId, e);
-            throw e; // Retry를 위해 예외를 다시 던짐
         }
     }
     
-    private byte[] createThumbnail(byte[] originalImageData, int width, int height) throws IOException {
-        // 원본 이미지 읽기
-        BufferedImage originalImage = ImageIO.read(new ByteArrayInputStream(originalImageData));
-        
-        // 썸네일 크기 계산 (비율 유지)
-        int originalWidth = originalImage.getWidth();
-        int originalHeight = originalImage.getHeight();
-        
-        double ratio = Math.min((double) width / originalWidth, (double) height / originalHeight);
-        int newWidth = (int) (originalWidth * ratio);
-        int newHeight = (int) (originalHeight * ratio);
+    // 렌디션 행 교체 (재시도로 남은 이전 행 포함) 후 READY 로 변경
+    private void complete(Image image, List<ImageRendition> renditionRows, Long perceptualHash) {
+        pipelineMetrics.stage("thumbnail.generate", "persist", () -> {
+            renditionRepository.deleteAll(renditionRepository.findByImageId(image.getId()));
+            renditionRepository.saveAll(renditionRows);
+            renditionRows.stream()
+                .filter(row -> row.getName().equals(primaryRendition))
+                .findFirst()
+                .ifPresent(row -> image.setThumbnailFileName(row.getFileName()));
+            image.setPerceptualHash(perceptualHash);
+            image.setThumbnailStatus(ThumbnailStatus.READY);
+            image.setThumbnailLeaseOwner(null);
+            image.setThumbnailLeaseUntil(null);
+            return imageRepository.save(image);
+        });
+        reportNearDuplicates(image);
+    }
+
+    // 같은 프로젝트에 다시 인코딩/크기 변경된 사본이 있으면 기록 (조회: /images/{id}/near-duplicates)
+    private void reportNearDuplicates(Image image) {
+        try {
+            List<NearDuplicate> matches = nearDuplicateIndex.findNearDuplicates(image, nearDuplicateIndex.getDefaultMaxDistance());
+            if (!matches.isEmpty()) {
+                pipelineMetrics.countDedup("near_duplicate");
+                log.info("Image ID: {} has {} near-duplicates in project {} (closest: {})",
+                    image.getId(), matches.size(), image.getProjectId(), matches.get(0));
+            }
+        } catch (Exception e) {
+            log.warn("Near-duplicate lookup failed for image ID: {}", image.getId(), e);
+        }
+    }
+
+    private ImageRendition copyRendition(ImageRendition source, Long imageId) {
+        return ImageRendition.builder()
+            .imageId(imageId)
+            .name(source.getName())
+            .fileName(source.getFileName())
+            .format(source.getFormat())
+            .width(source.getWidth())
+            .height(source.getHeight())
+            .fileSize(source.getFileSize())
+            .build();
+    }
+
+    private RenderedImage renderOnCpuPool(byte[] originalImageData) throws IOException {
+        try {
+            return cpuExecutor.submit(() -> createRenditions(originalImageData)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Thumbnail resize interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Thumbnail resize failed", e.getCause());
+        }
+    }
+
+    // 요청 시점 렌디션도 썸네일과 같은 CPU 풀에서 생성 (동시 CPU 사용량을 함께 제한)
+    public byte[] renderOnCpuPool(byte[] originalImageData, RenderSpec spec) throws IOException {
+        try {
+            return cpuExecutor.submit(() -> render(originalImageData, spec)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Render interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Render failed", e.getCause());
+        }
+    }
+
+    private void awaitUploads(List<CompletableFuture<Void>> uploads) throws IOException {
+        try {
+            CompletableFuture.allOf(uploads.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            throw new IOException("Failed to upload renditions", e.getCause());
+        }
+    }
+
+    // 원본을 한 번만 (서브샘플링) 디코딩하고, 각 렌디션은 직전(더 큰) 렌디션에서 축소
+    public RenderedImage createRenditions(byte[] originalImageData) throws IOException {
+        try (ImageDecoder.DecodedImage decoded = imageDecoder.decode(originalImageData, renditions.get(0).size())) {
+            BufferedImage source = decoded.image();
+            RasterPool rasterPool = rasterPools.get();
+
+            List<RenderedRendition> result = new ArrayList<>();
+            for (RenditionSpec spec : renditions) {
+                // 원본에 투명도가 없으면 알파 채널 없이 처리 (PNG/WebP 도 더 작게 저장됨)
+                boolean keepAlpha = source.getColorModel().hasAlpha() && thumbnailEncoder.encoderFor(spec.format()).keepsAlpha();
+                BufferedImage scaled = scaleToFit(source, spec.size(), spec.size(), keepAlpha, rasterPool);
+                byte[] data = thumbnailEncoder.encode(scaled, spec.format());
+                result.add(new RenderedRendition(spec, data, scaled.getWidth(), scaled.getHeight()));
+                source = scaled;
+            }
+            // 풀의 래스터가 다음 작업에 재사용되기 전에 가장 작은 렌디션에서 계산
+            return new RenderedImage(result, PerceptualHash.dHash(source));
+        }
+    }
+
+    // 원본을 요청 크기에 맞춰 한 장만 생성 (확대하지 않음)
+    public byte[] render(byte[] originalImageData, RenderSpec spec) throws IOException {
+        boolean cover = spec.fit() == RenderSpec.Fit.COVER;
+        try (ImageDecoder.DecodedImage decoded = imageDecoder.decode(originalImageData, spec.width(), spec.height(), cover)) {
+            BufferedImage source = cover ? cropToAspect(decoded.image(), spec.width(), spec.height()) : decoded.image();
+            boolean keepAlpha = source.getColorModel().hasAlpha() && thumbnailEncoder.encoderFor(spec.format()).keepsAlpha();
+            int width = spec.width() > 0 ? spec.width() : Integer.MAX_VALUE;
+            int height = spec.height() > 0 ? spec.height() : Integer.MAX_VALUE;
+            BufferedImage scaled = scaleToFit(source, width, height, keepAlpha, rasterPools.get());
+            return thumbnailEncoder.encode(scaled, spec.format());
+        }
+    }
+
+    // 가운데를 기준으로 요청 비율만큼 잘라냄 (래스터 복사 없음)
+    private BufferedImage cropToAspect(BufferedImage source, int width, int height) {
+        double aspect = (double) width / height;
+        int sourceWidth = source.getWidth();
+        int sourceHeight = source.getHeight();
+        if ((double) sourceWidth / sourceHeight > aspect) {
+            int croppedWidth = Math.max(1, (int) Math.round(sourceHeight * aspect));
+            return source.getSubimage((sourceWidth - croppedWidth) / 2, 0, croppedWidth, sourceHeight);
+        }
+        int croppedHeight = Math.max(1, (int) Math.round(sourceWidth / aspect));
+        return source.getSubimage(0, (sourceHeight - croppedHeight) / 2, sourceWidth, croppedHeight);
+    }
+
+    private BufferedImage scaleToFit(BufferedImage source, int width, int height, boolean keepAlpha, RasterPool rasterPool) {
+        // 썸네일 크기 계산 (비율 유지, 확대하지 않음)
+        int originalWidth = source.getWidth();
+        int originalHeight = source.getHeight();
         
-        // 썸네일 이미지 생성
-        BufferedImage thumbnailImage = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_RGB);
-        Graphics2D g2d = thumbnailImage.createGraphics();
+        double ratio = Math.min(1.0, Math.min((double) width / originalWidth, (double) height / originalHeight));
+        int newWidth = Math.max(1, (int) (originalWidth * ratio));
+        int newHeight = Math.max(1, (int) (originalHeight * ratio));
+
+        // 절반씩 단계적으로 축소하여 한 번에 크게 줄일 때의 계단 현상 방지
+        BufferedImage current = source;
+        int currentWidth = originalWidth;
+        int currentHeight = originalHeight;
+        do {
+            currentWidth = Math.max(newWidth, currentWidth / 2);
+            currentHeight = Math.max(newHeight, currentHeight / 2);
+            current = draw(current, rasterPool.canvas(currentWidth, currentHeight, keepAlpha));
+        } while (currentWidth != newWidth || currentHeight != newHeight);
+        return current;
+    }
+
+    private BufferedImage draw(BufferedImage source, BufferedImage target) {
+        int width = target.getWidth();
+        int height = target.getHeight();
+        Graphics2D g2d = target.createGraphics();
         
         // 고품질 렌더링 설정
         g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
         g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        // 재사용 래스터에 남은 이전 픽셀을 덮어씀 (투명 원본을 불투명 캔버스에 그릴 때는 흰 배경에 합성)
+        if (target.getColorModel().hasAlpha()) {
+            g2d.setComposite(AlphaComposite.Src);
+        } else if (source.getColorModel().hasAlpha()) {
+            g2d.setColor(Color.WHITE);
+            g2d.fillRect(0, 0, width, height);
+        }
         
-        g2d.drawImage(originalImage, 0, 0, newWidth, newHeight, null);
+        g2d.drawImage(source, 0, 0, width, height, null);
         g2d.dispose();
-        
-        // byte 배열로 변환
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(thumbnailImage, "jpg", baos);
-        return baos.toByteArray();
+        return target;
     }
-    
-    private String generateThumbnailFileName(String projectId, String originalFileName) {
-        String nameWithoutExtension = originalFileName.substring(0, originalFileName.lastIndexOf('.'));
-        return nameWithoutExtension + "_thumbnail.jpg";
+
+    private String generateRenditionFileName(String baseName, RenditionSpec spec) {
+        return baseName + "_" + spec.name() + "." + spec.format();
     }
     
+    // 영구 실패는 바로 FAILED, 일시적 실패는 지터를 준 지수 백오프 시각까지 대기 (리스 만료 시각 = 다음 시도 시각)
     private void handleThumbnailFailure(Long imageId, Exception e) {
         try {
-            Image image = imageRepository.findById(imageId).orElseThrow();
+            Image image = imageRepository.findById(imageId).orElse(null);
+            if (image == null || image.getThumbnailStatus() != ThumbnailStatus.PROCESSING) {
+                return;
+            }
+
+            boolean permanent = isPermanentFailure(e);
+            if (!permanent && storageCircuitBreaker.isOpen()) {
+                // 실패 도중 MinIO 차단이 열렸으면 저장소 문제이므로 시도 횟수에 넣지 않음
+                park(image, storageCircuitBreaker.retryAt());
+                return;
+            }
+
             image.setRetryCount(image.getRetryCount() + 1);
-            
-            if (image.getRetryCount() >= 3) {
+            image.setThumbnailLeaseOwner(null);
+            if (permanent || image.getRetryCount() >= jobQueue.getMaxAttempts()) {
                 image.setThumbnailStatus(ThumbnailStatus.FAILED);
-                log.error("Thumbnail generation permanently failed for image ID: {} after 3 attempts", imageId);
+                image.setThumbnailLeaseUntil(null);
+                log.error("Thumbnail generation permanently failed for image ID: {} after {} attempts ({})",
+                    imageId, image.getRetryCount(), permanent ? "permanent" : "transient");
+            } else {
+                image.setThumbnailLeaseUntil(jobQueue.nextAttemptAt(image.getRetryCount()));
+                log.warn("Thumbnail generation for image ID: {} will be retried at {} (attempt {}/{})",
+                    imageId, image.getThumbnailLeaseUntil(), image.getRetryCount(), jobQueue.getMaxAttempts());
             }
-            
             imageRepository.save(image);
         } catch (Exception saveException) {
             log.error("Failed to update thumbnail failure status for image ID: {}", imageId, saveException);
         }
     }
+
+    private void park(Image image, Instant until) {
+        image.setThumbnailLeaseOwner(null);
+        image.setThumbnailLeaseUntil(LocalDateTime.ofInstant(until, ZoneId.systemDefault()));
+        imageRepository.save(image);
+        log.info("Storage unavailable, thumbnail for image ID: {} deferred until {}", image.getId(), image.getThumbnailLeaseUntil());
+    }
+
+    // 원본 자체의 문제(디코딩 불가, 원본 없음)는 다시 시도해도 같은 결과
+    static boolean isPermanentFailure(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof UnsupportedImageException || t instanceof IIOException || t instanceof NoSuchKeyException) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
\ No newline at end of file
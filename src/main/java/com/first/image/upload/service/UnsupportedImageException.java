@@ -0,0 +1,11 @@
+package com.first.image.upload.service;
+
+import java.io.IOException;
+
+// 원본을 디코딩할 수 없음 (지원하지 않는 포맷, 크기 초과), 다시 시도해도 결과가 같음
+public class UnsupportedImageException extends IOException {
+
+    public UnsupportedImageException(String message) {
+        super(message);
+    }
+}
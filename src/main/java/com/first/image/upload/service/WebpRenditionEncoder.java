@@ -0,0 +1,43 @@
+package com.first.image.upload.service;
+
+import java.util.Set;
+
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// WebP: webp-imageio (libwebp) 플러그인 사용, 손실 압축이 기본이며 투명도 유지
+@Component
+public class WebpRenditionEncoder extends ImageIoRenditionEncoder {
+
+    @Value("${thumbnail.encoder.webp.quality:0.75}")
+    private float quality;
+
+    @Value("${thumbnail.encoder.webp.lossless:false}")
+    private boolean lossless;
+
+    public WebpRenditionEncoder() {
+        super("webp");
+    }
+
+    @Override
+    public Set<String> formats() {
+        return Set.of("webp");
+    }
+
+    @Override
+    public boolean keepsAlpha() {
+        return true;
+    }
+
+    @Override
+    protected ImageWriteParam writeParam(ImageWriter writer) {
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionType(lossless ? "Lossless" : "Lossy");
+        param.setCompressionQuality(quality);
+        return param;
+    }
+}
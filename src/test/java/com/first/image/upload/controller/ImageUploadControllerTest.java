@@ -0,0 +1,84 @@
+package com.first.image.upload.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.first.image.upload.entity.Image;
+import com.first.image.upload.service.ArchiveLimitExceededException;
+import com.first.image.upload.service.BulkUploadService;
+import com.first.image.upload.service.DirectUploadService;
+import com.first.image.upload.service.ImageDownloadService;
+import com.first.image.upload.service.ImageRenderService;
+import com.first.image.upload.service.ImageService;
+import com.first.image.upload.service.ProjectStatsService;
+
+class ImageUploadControllerTest {
+
+    private final ImageService imageService = mock(ImageService.class);
+
+    private final ImageDownloadService imageDownloadService = mock(ImageDownloadService.class);
+
+    private final BulkUploadService bulkUploadService = mock(BulkUploadService.class);
+
+    private final ImageUploadController controller = new ImageUploadController(imageService, imageDownloadService,
+            bulkUploadService, mock(DirectUploadService.class), mock(ImageRenderService.class),
+            mock(ProjectStatsService.class));
+
+    @Test
+    void deletedImageContentIsNotFound() throws Exception {
+        when(imageService.getImageById(1L)).thenReturn(Image.builder()
+                .id(1L)
+                .projectId("p1")
+                .fileName("projects/p1/a.jpg")
+                .fileHash("abc")
+                .delYn("Y")
+                .build());
+
+        ResponseEntity<StreamingResponseBody> response = controller.getContent(1L, new HttpHeaders());
+
+        assertThat(response.getStatusCode().value()).isEqualTo(404);
+        verifyNoInteractions(imageDownloadService);
+    }
+
+    @Test
+    void liveImageContentIsServed() throws Exception {
+        when(imageService.getImageById(1L)).thenReturn(Image.builder()
+                .id(1L)
+                .projectId("p1")
+                .fileName("projects/p1/a.jpg")
+                .originalFileName("a.jpg")
+                .fileHash("abc")
+                .fileSize(10L)
+                .delYn("N")
+                .build());
+        when(imageDownloadService.serveOriginal(any(), any(), any(), any(), any()))
+                .thenReturn(ResponseEntity.ok().build());
+
+        ResponseEntity<StreamingResponseBody> response = controller.getContent(1L, new HttpHeaders());
+
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+    }
+
+    @Test
+    void archiveOverLimitIsPayloadTooLarge() throws Exception {
+        MockMultipartFile archive = new MockMultipartFile("archive", "images.zip", "application/zip", new byte[1]);
+        when(bulkUploadService.uploadImages(eq("p1"), isNull(), any()))
+                .thenThrow(new ArchiveLimitExceededException("Archive has more than 1000 entries"));
+
+        ResponseEntity<?> response = controller.uploadImages("p1", null, archive);
+
+        assertThat(response.getStatusCode().value()).isEqualTo(413);
+        assertThat(response.getBody()).isEqualTo("Upload failed: Archive has more than 1000 entries");
+    }
+}
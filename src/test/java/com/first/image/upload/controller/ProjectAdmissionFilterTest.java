@@ -0,0 +1,92 @@
+package com.first.image.upload.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.first.image.upload.entity.Image;
+import com.first.image.upload.service.ImageService;
+import com.first.image.upload.service.ProjectRateLimiter;
+
+class ProjectAdmissionFilterTest {
+
+    private final ProjectRateLimiter rateLimiter = mock(ProjectRateLimiter.class);
+
+    private final ImageService imageService = mock(ImageService.class);
+
+    private final ProjectAdmissionFilter filter = new ProjectAdmissionFilter(rateLimiter, imageService);
+
+    @BeforeEach
+    void setUp() {
+        when(rateLimiter.isEnabled()).thenReturn(true);
+    }
+
+    @Test
+    void rejectsWith429AndRetryAfter() throws Exception {
+        when(rateLimiter.tryAcquire(anyString(), anyLong()))
+                .thenReturn(new ProjectRateLimiter.Decision(false, Duration.ofMillis(1500), "bytes"));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/project/p1/images");
+        request.setContent(new byte[2048]);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        // 1.5초는 올림하여 2초
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(response.getContentAsString()).isEqualTo("Rate limit exceeded for project p1 (bytes)");
+        assertThat(chain.getRequest()).isNull();
+        verify(rateLimiter).tryAcquire("p1", 2048);
+    }
+
+    @Test
+    void passesAdmittedRequest() throws Exception {
+        when(rateLimiter.tryAcquire(anyString(), anyLong()))
+                .thenReturn(new ProjectRateLimiter.Decision(true, Duration.ZERO, null));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/project/p1/images/bulk");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    @Test
+    void chargesPatchToImageProject() throws Exception {
+        when(imageService.getImageById(7L)).thenReturn(Image.builder().id(7L).projectId("p9").build());
+        when(rateLimiter.tryAcquire(anyString(), anyLong()))
+                .thenReturn(new ProjectRateLimiter.Decision(false, Duration.ofSeconds(3), "requests"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("PATCH", "/images/7"), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+        verify(rateLimiter).tryAcquire("p9", 0);
+    }
+
+    @Test
+    void skipsReads() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/project/p1/images");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+}
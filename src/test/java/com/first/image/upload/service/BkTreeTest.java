@@ -0,0 +1,103 @@
+package com.first.image.upload.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.first.image.upload.dto.NearDuplicate;
+
+class BkTreeTest {
+
+    @Test
+    void findsHashesWithinDistanceInDistanceOrder() {
+        BkTree tree = new BkTree();
+        long base = 0x0F0F_0F0F_0F0F_0F0FL;
+        tree.put(1, base);
+        tree.put(2, base ^ 0b1);
+        tree.put(3, base ^ 0b111);
+        tree.put(4, ~base);
+        tree.put(5, base);
+
+        assertThat(tree.search(base, 3)).containsExactly(
+                new NearDuplicate(1L, 0), new NearDuplicate(5L, 0), new NearDuplicate(2L, 1), new NearDuplicate(3L, 3));
+        assertThat(tree.search(base, 0)).extracting(NearDuplicate::imageId).containsExactly(1L, 5L);
+    }
+
+    @Test
+    void matchesLinearScan() {
+        Random random = new Random(42);
+        BkTree tree = new BkTree();
+        long[] hashes = new long[500];
+        for (int i = 0; i < hashes.length; i++) {
+            // 일부는 서로 가깝게 만들어 가지치기와 같은 노드 모음을 함께 확인
+            hashes[i] = i % 5 == 0 ? random.nextLong() : hashes[i - 1] ^ (1L << random.nextInt(64));
+            tree.put(i, hashes[i]);
+        }
+
+        for (int q = 0; q < 50; q++) {
+            long query = hashes[random.nextInt(hashes.length)] ^ (1L << random.nextInt(64));
+            List<Long> expected = new ArrayList<>();
+            for (int i = 0; i < hashes.length; i++) {
+                if (PerceptualHash.distance(hashes[i], query) <= 6) {
+                    expected.add((long) i);
+                }
+            }
+            assertThat(tree.search(query, 6)).extracting(NearDuplicate::imageId)
+                    .containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    @Test
+    void neverReturnsRemovedIds() {
+        BkTree tree = new BkTree();
+        for (long id = 0; id < 200; id++) {
+            tree.put(id, id % 10 == 0 ? 0L : id);
+        }
+        for (long id = 0; id < 200; id += 2) {
+            tree.remove(id);
+        }
+
+        assertThat(tree.size()).isEqualTo(100);
+        for (long id = 0; id < 200; id++) {
+            long hash = id % 10 == 0 ? 0L : id;
+            List<Long> found = tree.search(hash, 64).stream().map(NearDuplicate::imageId).toList();
+            assertThat(found).hasSize(100).allMatch(imageId -> imageId % 2 == 1);
+        }
+    }
+
+    @Test
+    void movedIdIsFoundOnlyAtNewHash() {
+        BkTree tree = new BkTree();
+        tree.put(1, 0L);
+        tree.put(2, 0L);
+        tree.put(1, -1L);
+
+        assertThat(tree.search(0L, 0)).extracting(NearDuplicate::imageId).containsExactly(2L);
+        assertThat(tree.search(-1L, 0)).extracting(NearDuplicate::imageId).containsExactly(1L);
+        assertThat(tree.size()).isEqualTo(2);
+    }
+
+    @Test
+    void rehashingCompactsEmptyNodes() {
+        BkTree tree = new BkTree();
+        for (long id = 0; id < 200; id++) {
+            tree.put(id, id);
+        }
+        for (int round = 1; round <= 5; round++) {
+            for (long id = 0; id < 200; id++) {
+                tree.put(id, id + round * 1000L);
+            }
+        }
+
+        int nodes = (int) ReflectionTestUtils.getField(tree, "nodes");
+        int emptyNodes = (int) ReflectionTestUtils.getField(tree, "emptyNodes");
+        assertThat(emptyNodes * 2).isLessThanOrEqualTo(nodes);
+        assertThat(tree.search(5005L, 0)).extracting(NearDuplicate::imageId).containsExactly(5L);
+        assertThat(tree.search(4005L, 0)).isEmpty();
+    }
+}
@@ -0,0 +1,82 @@
+package com.first.image.upload.service;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import com.first.image.upload.repo.ImageBatchRepository;
+import com.first.image.upload.repo.ImageRepository;
+
+class BulkUploadServiceTest {
+
+    private final ImageRepository imageRepository = mock(ImageRepository.class);
+
+    private final MinioService minioService = mock(MinioService.class);
+
+    private final BulkUploadService service = new BulkUploadService(imageRepository,
+            mock(ImageBatchRepository.class), minioService, mock(ContentHasher.class), mock(ImageService.class),
+            mock(ObjectReclaimQueue.class), mock(ImageMetadataCache.class), mock(ProjectStatsBuffer.class),
+            mock(ThreadPoolTaskExecutor.class));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "maxArchiveEntries", 3);
+        ReflectionTestUtils.setField(service, "maxArchiveUncompressedSize", DataSize.ofBytes(250));
+        ReflectionTestUtils.setField(service, "maxFileSize", DataSize.ofBytes(100));
+    }
+
+    @Test
+    void rejectsTooManyEntries() throws IOException {
+        MockMultipartFile archive = zip(10, 10, 10, 10);
+
+        assertThatThrownBy(() -> service.uploadImages("p1", null, archive))
+                .isInstanceOf(ArchiveLimitExceededException.class)
+                .hasMessage("Archive has more than 3 entries");
+        verifyNoInteractions(imageRepository, minioService);
+    }
+
+    @Test
+    void rejectsOversizedEntry() throws IOException {
+        MockMultipartFile archive = zip(10, 101);
+
+        assertThatThrownBy(() -> service.uploadImages("p1", null, archive))
+                .isInstanceOf(ArchiveLimitExceededException.class)
+                .hasMessage("Archive entry 1.jpg exceeds 100B");
+        verifyNoInteractions(imageRepository, minioService);
+    }
+
+    @Test
+    void rejectsArchiveOverTotalSize() throws IOException {
+        // 항목 하나하나는 한도 안이지만 합계가 250B 를 넘음
+        MockMultipartFile archive = zip(100, 100, 100);
+
+        assertThatThrownBy(() -> service.uploadImages("p1", null, archive))
+                .isInstanceOf(ArchiveLimitExceededException.class)
+                .hasMessage("Archive exceeds 250B uncompressed");
+        verifyNoInteractions(imageRepository, minioService);
+    }
+
+    private static MockMultipartFile zip(int... entrySizes) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (int i = 0; i < entrySizes.length; i++) {
+                zip.putNextEntry(new ZipEntry("dir/" + i + ".jpg"));
+                zip.write(new byte[entrySizes[i]]);
+                zip.closeEntry();
+            }
+        }
+        return new MockMultipartFile("archive", "images.zip", "application/zip", bytes.toByteArray());
+    }
+}
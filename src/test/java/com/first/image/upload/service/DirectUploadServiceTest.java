@@ -0,0 +1,90 @@
+package com.first.image.upload.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.first.image.upload.dto.DirectUploadComplete;
+import com.first.image.upload.repo.ImageRepository;
+import com.first.image.upload.service.ImageOutbox.StagedUpload;
+
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+
+class DirectUploadServiceTest {
+
+    private static final String FILE = "projects/p1/a.jpg";
+
+    private static final String SHA256 = "ab".repeat(32);
+
+    private final ImageService imageService = mock(ImageService.class);
+
+    private final MinioService minioService = mock(MinioService.class);
+
+    private final ImageOutbox imageOutbox = mock(ImageOutbox.class);
+
+    private final DirectUploadService service = new DirectUploadService(mock(ImageRepository.class), imageService,
+            minioService, mock(ContentHasher.class), imageOutbox);
+
+    @Test
+    void completionWithoutSlotIsRejected() {
+        // 슬롯 없이 올렸거나, 만료되어 릴레이가 이미 정리 중인 객체
+        when(imageOutbox.findStaged(FILE)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.complete("p1", complete(FILE, 10)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Upload slot not found: " + FILE);
+        verifyNoInteractions(minioService, imageService);
+    }
+
+    @Test
+    void completionOutsideProjectIsRejected() {
+        assertThatThrownBy(() -> service.complete("p1", complete("projects/p2/a.jpg", 10)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("File does not belong to project: projects/p2/a.jpg");
+        verifyNoInteractions(imageOutbox, minioService, imageService);
+    }
+
+    @Test
+    void sizeMismatchDiscardsSlot() {
+        StagedUpload staged = new StagedUpload(3L, FILE);
+        when(imageOutbox.findStaged(FILE)).thenReturn(Optional.of(staged));
+        when(minioService.headImage(FILE)).thenReturn(HeadObjectResponse.builder().contentLength(11L).build());
+
+        assertThatThrownBy(() -> service.complete("p1", complete(FILE, 10)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Size mismatch for " + FILE);
+        verify(imageOutbox).discardStaged(staged, "REJECTED_UPLOAD");
+        verify(imageService, never()).registerUploadedObject(any(), any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void verifiedUploadIsRegisteredWithItsSlot() throws Exception {
+        StagedUpload staged = new StagedUpload(3L, FILE);
+        when(imageOutbox.findStaged(FILE)).thenReturn(Optional.of(staged));
+        when(minioService.headImage(FILE)).thenReturn(HeadObjectResponse.builder()
+                .contentLength(10L)
+                .checksumSHA256(Base64.getEncoder().encodeToString(HexFormat.of().parseHex(SHA256)))
+                .build());
+        when(imageService.registerUploadedObject(any(), any(), any(), any(), anyLong())).thenReturn(FILE);
+
+        assertThat(service.complete("p1", complete(FILE, 10))).isEqualTo(FILE);
+        verify(imageService).registerUploadedObject("p1", staged, "a.jpg",
+                new ContentHasher.ContentHash(ContentHasher.SHA_256, SHA256, null), 10L);
+    }
+
+    private static DirectUploadComplete complete(String fileName, long fileSize) {
+        return new DirectUploadComplete(fileName, "a.jpg", fileSize, SHA256);
+    }
+}
@@ -0,0 +1,113 @@
+package com.first.image.upload.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FairShareQueueTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private FairShareQueue queue(Map<String, Double> weights) {
+        return new FairShareQueue(100, projectId -> weights.getOrDefault(projectId, 1.0),
+                projectId -> weights.containsKey(projectId) ? projectId : "other", meterRegistry);
+    }
+
+    private static FairShareQueue.ProjectTask task(String projectId) {
+        return new FairShareQueue.ProjectTask(projectId, () -> { });
+    }
+
+    private static List<String> drainProjects(FairShareQueue queue) {
+        List<String> order = new ArrayList<>();
+        Runnable next;
+        while ((next = queue.poll()) != null) {
+            order.add(((FairShareQueue.ProjectTask) next).projectId());
+        }
+        return order;
+    }
+
+    @Test
+    void keepsSubmissionOrderWithinProject() {
+        FairShareQueue queue = queue(Map.of());
+        List<FairShareQueue.ProjectTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tasks.add(task("a"));
+            queue.offer(tasks.get(i));
+        }
+
+        for (FairShareQueue.ProjectTask expected : tasks) {
+            assertThat(queue.poll()).isSameAs(expected);
+        }
+        assertThat(queue.poll()).isNull();
+    }
+
+    @Test
+    void interleavesProjectQueuedBehindBacklog() {
+        FairShareQueue queue = queue(Map.of());
+        for (int i = 0; i < 10; i++) {
+            queue.offer(task("bulk"));
+        }
+        queue.offer(task("small"));
+
+        // 대량 작업 10건 뒤에 들어왔어도 두 번째 안에 처리됨
+        assertThat(drainProjects(queue).subList(0, 2)).contains("small");
+    }
+
+    @Test
+    void splitsTurnsByWeight() {
+        FairShareQueue queue = queue(Map.of("heavy", 3.0, "light", 1.0));
+        for (int i = 0; i < 12; i++) {
+            queue.offer(task("heavy"));
+            queue.offer(task("light"));
+        }
+
+        List<String> firstEight = drainProjects(queue).subList(0, 8);
+        assertThat(firstEight).filteredOn("heavy"::equals).hasSize(6);
+        assertThat(firstEight).filteredOn("light"::equals).hasSize(2);
+    }
+
+    @Test
+    void unattributedTaskIsQueuedAsOwnProject() {
+        FairShareQueue queue = queue(Map.of());
+        Runnable plain = () -> { };
+        queue.offer(plain);
+
+        Runnable polled = queue.poll();
+        assertThat(polled).isInstanceOf(FairShareQueue.ProjectTask.class);
+        assertThat(((FairShareQueue.ProjectTask) polled).projectId()).isEqualTo(FairShareQueue.UNATTRIBUTED);
+    }
+
+    @Test
+    void rejectsOfferBeyondCapacity() {
+        FairShareQueue queue = new FairShareQueue(2, projectId -> 1.0, projectId -> "other", meterRegistry);
+
+        assertThat(queue.offer(task("a"))).isTrue();
+        assertThat(queue.offer(task("b"))).isTrue();
+        assertThat(queue.offer(task("c"))).isFalse();
+        assertThat(queue.remainingCapacity()).isZero();
+    }
+
+    @Test
+    void waitTimerTagsAreBoundedToConfiguredProjects() {
+        FairShareQueue queue = queue(Map.of("vip", 2.0));
+        queue.offer(task("vip"));
+        for (int i = 0; i < 20; i++) {
+            queue.offer(task("project-" + i));
+        }
+        drainProjects(queue);
+
+        List<String> tags = meterRegistry.find("admission.queue.wait").timers().stream()
+                .map(Meter::getId)
+                .map(id -> id.getTag("project"))
+                .toList();
+        assertThat(tags).containsExactlyInAnyOrder("vip", "other");
+        assertThat(meterRegistry.get("admission.queue.wait").tag("project", "other").timer().count()).isEqualTo(20);
+    }
+}
@@ -0,0 +1,158 @@
+package com.first.image.upload.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+class ImageDownloadServiceTest {
+
+    private static final String FILE = "projects/p1/a.jpg";
+
+    private static final String ETAG = "\"abc\"";
+
+    private static final byte[] DATA = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    private final MinioService minioService = mock(MinioService.class);
+
+    private final ImageCacheService imageCacheService = mock(ImageCacheService.class);
+
+    private final ImageDownloadService service = new ImageDownloadService(minioService, imageCacheService);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(imageCacheService.getHeapCached(FILE)).thenReturn(DATA);
+    }
+
+    @Test
+    void suffixRangeReturnsLastBytes() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = serveThumbnail(headers("bytes=-3"));
+
+        assertThat(response.getStatusCode().value()).isEqualTo(206);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-9/10");
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(3);
+        assertThat(body(response)).isEqualTo("789");
+    }
+
+    @Test
+    void openEndedRangeRunsToEnd() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = serveThumbnail(headers("bytes=4-"));
+
+        assertThat(response.getStatusCode().value()).isEqualTo(206);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 4-9/10");
+        assertThat(body(response)).isEqualTo("456789");
+    }
+
+    @Test
+    void rangePastEndIsNotSatisfiable() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = serveThumbnail(headers("bytes=20-"));
+
+        assertThat(response.getStatusCode().value()).isEqualTo(416);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+        assertThat(response.getBody()).isNull();
+    }
+
+    @Test
+    void malformedRangeReturnsFullBody() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = serveThumbnail(headers("bytes=abc"));
+
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(10);
+        assertThat(body(response)).isEqualTo("0123456789");
+    }
+
+    @Test
+    void ifRangeMismatchReturnsFullBody() throws IOException {
+        HttpHeaders headers = headers("bytes=0-1");
+        headers.set(HttpHeaders.IF_RANGE, "\"stale\"");
+
+        ResponseEntity<StreamingResponseBody> response = serveThumbnail(headers);
+
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(body(response)).isEqualTo("0123456789");
+    }
+
+    @Test
+    void ifRangeMatchKeepsRange() throws IOException {
+        HttpHeaders headers = headers("bytes=0-1");
+        headers.set(HttpHeaders.IF_RANGE, ETAG);
+
+        ResponseEntity<StreamingResponseBody> response = serveThumbnail(headers);
+
+        assertThat(response.getStatusCode().value()).isEqualTo(206);
+        assertThat(body(response)).isEqualTo("01");
+    }
+
+    @Test
+    void originalRangeIsFetchedFromStorage() throws IOException {
+        when(minioService.openStream(FILE, 2L, 4L)).thenReturn(new ByteArrayInputStream("234".getBytes()));
+
+        ResponseEntity<StreamingResponseBody> response = service.serveOriginal(FILE, 10L, ETAG,
+                MediaType.IMAGE_JPEG, headers("bytes=2-4"));
+
+        assertThat(response.getStatusCode().value()).isEqualTo(206);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-4/10");
+        assertThat(body(response)).isEqualTo("234");
+    }
+
+    @Test
+    void originalPastEndIsNotSatisfiableWithoutFetching() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = service.serveOriginal(FILE, 10L, ETAG,
+                MediaType.IMAGE_JPEG, headers("bytes=10-"));
+
+        assertThat(response.getStatusCode().value()).isEqualTo(416);
+        verify(minioService, never()).openStream(any(), any(), any());
+    }
+
+    @Test
+    void originalWithoutSizeAndObjectIsNotFound() throws IOException {
+        when(minioService.headImage(FILE)).thenReturn(null);
+
+        ResponseEntity<StreamingResponseBody> response = service.serveOriginal(FILE, null, ETAG,
+                MediaType.IMAGE_JPEG, new HttpHeaders());
+
+        assertThat(response.getStatusCode().value()).isEqualTo(404);
+    }
+
+    @Test
+    void matchingIfNoneMatchSkipsBody() throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(ETAG);
+
+        ResponseEntity<StreamingResponseBody> response = service.serveOriginal(FILE, null, ETAG,
+                MediaType.IMAGE_JPEG, headers);
+
+        assertThat(response.getStatusCode().value()).isEqualTo(304);
+        verify(minioService, never()).headImage(any());
+    }
+
+    private ResponseEntity<StreamingResponseBody> serveThumbnail(HttpHeaders headers) throws IOException {
+        return service.serveThumbnail(FILE, ETAG, MediaType.IMAGE_JPEG, headers);
+    }
+
+    private static HttpHeaders headers(String range) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RANGE, range);
+        return headers;
+    }
+
+    private static String body(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toString(StandardCharsets.US_ASCII);
+    }
+}
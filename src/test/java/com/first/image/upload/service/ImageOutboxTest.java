@@ -0,0 +1,83 @@
+package com.first.image.upload.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.first.image.upload.repo.OutboxEventRepository;
+import com.first.image.upload.service.ImageOutbox.StagedUpload;
+
+class ImageOutboxTest {
+
+    private static final String BLOB = "blobs/ab/abcd.jpg";
+
+    private final OutboxEventRepository outboxEventRepository = mock(OutboxEventRepository.class);
+
+    private final ObjectReclaimQueue objectReclaimQueue = mock(ObjectReclaimQueue.class);
+
+    private final BlobService blobService = mock(BlobService.class);
+
+    private final ImageOutbox imageOutbox = new ImageOutbox(outboxEventRepository, objectReclaimQueue, blobService);
+
+    @Test
+    void resolvesOnlyItsOwnEventForSharedBlobKey() {
+        // 같은 내용의 업로드 두 건이 같은 블롭 키를 기록
+        StagedUpload first = new StagedUpload(1L, BLOB);
+        StagedUpload second = new StagedUpload(2L, BLOB);
+        when(outboxEventRepository.deleteEvent(1L)).thenReturn(1, 0);
+        when(outboxEventRepository.deleteEvent(2L)).thenReturn(1);
+
+        assertThat(imageOutbox.resolveStaged(first)).isEqualTo(1);
+        assertThat(imageOutbox.resolveStaged(first)).isZero();
+        // 첫 번째 기록을 지워도 두 번째 기록은 남아 있음
+        assertThat(imageOutbox.resolveStaged(second)).isEqualTo(1);
+    }
+
+    @Test
+    void unstagedUploadResolvesWithoutEvent() {
+        assertThat(imageOutbox.resolveStaged(StagedUpload.unstaged("projects/p1/a.jpg"))).isEqualTo(1);
+        verifyNoInteractions(outboxEventRepository);
+    }
+
+    @Test
+    void discardReleasesBlobReferenceOnce() {
+        StagedUpload staged = new StagedUpload(1L, BLOB);
+        when(blobService.isBlob(BLOB)).thenReturn(true);
+        // 두 번째는 릴레이가 이미 기록을 지운 경우
+        when(outboxEventRepository.deleteEvent(1L)).thenReturn(1, 0);
+
+        imageOutbox.discardStaged(staged, "DUPLICATE");
+        imageOutbox.discardStaged(staged, "DUPLICATE");
+
+        verify(blobService, times(1)).release(BLOB);
+        verifyNoInteractions(objectReclaimQueue);
+    }
+
+    @Test
+    void discardSkipsAlreadyResolvedUpload() {
+        when(outboxEventRepository.deleteEvent(anyLong())).thenReturn(0);
+
+        imageOutbox.discardStaged(new StagedUpload(1L, "projects/p1/a.jpg"), "FAILED_UPLOAD");
+
+        verifyNoInteractions(objectReclaimQueue, blobService);
+    }
+
+    @Test
+    void discardQueuesPlainObjectForDeletion() {
+        when(outboxEventRepository.deleteEvent(1L)).thenReturn(1);
+
+        imageOutbox.discardStaged(new StagedUpload(1L, "projects/p1/a.jpg"), "FAILED_UPLOAD");
+
+        verify(objectReclaimQueue).enqueue(List.of("projects/p1/a.jpg"), "FAILED_UPLOAD");
+        verify(blobService, never()).release(BLOB);
+    }
+}
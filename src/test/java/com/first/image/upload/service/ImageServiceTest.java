@@ -0,0 +1,206 @@
+package com.first.image.upload.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.first.image.upload.dto.CursorPage;
+import com.first.image.upload.dto.ImageSummary;
+import com.first.image.upload.entity.Image;
+import com.first.image.upload.entity.OutboxEvent;
+import com.first.image.upload.entity.ThumbnailStatus;
+import com.first.image.upload.repo.ImageRenditionRepository;
+import com.first.image.upload.repo.ImageRepository;
+import com.first.image.upload.service.ImageOutbox.StagedUpload;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+
+class ImageServiceTest {
+
+    private static final String HASH = "abc";
+
+    private final ImageRepository imageRepository = mock(ImageRepository.class);
+
+    private final ImageOutbox imageOutbox = mock(ImageOutbox.class);
+
+    private final ImageMetadataCache imageMetadataCache = mock(ImageMetadataCache.class);
+
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ImageService imageService = new ImageService(mock(ThumbnailService.class), imageRepository,
+            mock(MinioService.class), mock(ThumbnailJobQueue.class), mock(ImageRenditionRepository.class),
+            mock(ImageCacheService.class), mock(ContentHasher.class), mock(ObjectReclaimQueue.class),
+            new PipelineMetrics(ObservationRegistry.NOOP, meterRegistry), mock(BlobService.class),
+            imageMetadataCache, imageOutbox, mock(NearDuplicateIndex.class), transactionTemplate);
+
+    private final StagedUpload staged = new StagedUpload(1L, "projects/p1/mine.jpg");
+
+    @BeforeEach
+    void setUp() {
+        // 콜백을 바로 실행하고, 커밋 후 작업 등록이 가능하도록 동기화만 켬
+        when(transactionTemplate.execute(any())).thenAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        TransactionSynchronizationManager.initSynchronization();
+        when(imageOutbox.resolveStaged(staged)).thenReturn(1);
+        when(imageMetadataCache.getPage(any(), any(), any(), anyInt(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(4).get());
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void insertRaceReturnsWinner() {
+        Image winner = image(5L, "projects/p1/winner.jpg", "N");
+        when(imageRepository.findByProjectIdAndFileHash("p1", HASH)).thenReturn(Optional.empty(), Optional.of(winner));
+        when(imageRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("idx_project_hash"));
+
+        String fileName = register();
+
+        assertThat(fileName).isEqualTo("projects/p1/winner.jpg");
+        verify(imageOutbox).discardStaged(staged, "DUPLICATE");
+        assertThat(dedupCount("race")).isEqualTo(1);
+    }
+
+    @Test
+    void insertRaceAgainstDeletedRowRevivesIt() {
+        Image deleted = image(5L, "projects/p1/old.jpg", "Y");
+        when(imageRepository.findByProjectIdAndFileHash("p1", HASH)).thenReturn(Optional.empty(), Optional.of(deleted));
+        when(imageRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("idx_project_hash"));
+        when(imageRepository.claimDeleted(eq(5L), eq(staged.fileName()), any())).thenReturn(1);
+        when(imageRepository.save(deleted)).thenReturn(deleted);
+        when(imageOutbox.requestThumbnail(5L)).thenReturn(OutboxEvent.builder().id(9L).build());
+
+        String fileName = register();
+
+        assertThat(fileName).isEqualTo(staged.fileName());
+        assertThat(deleted.getDelYn()).isEqualTo("N");
+        assertThat(deleted.getFileName()).isEqualTo(staged.fileName());
+        assertThat(deleted.getThumbnailStatus()).isEqualTo(ThumbnailStatus.PROCESSING);
+        verify(imageOutbox).resolveStaged(staged);
+        verify(imageOutbox, never()).discardStaged(any(), any());
+        assertThat(dedupCount("revived")).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentReviveReturnsFirstClaimant() {
+        Image deleted = image(5L, "projects/p1/old.jpg", "Y");
+        when(imageRepository.findByProjectIdAndFileHash("p1", HASH)).thenReturn(Optional.of(deleted));
+        // 다른 요청이 먼저 되살려 delYn = 'Y' 조건에 걸리지 않음
+        when(imageRepository.claimDeleted(eq(5L), eq(staged.fileName()), any())).thenReturn(0);
+        when(imageRepository.findFileNameById(5L)).thenReturn("projects/p1/first.jpg");
+
+        String fileName = register();
+
+        assertThat(fileName).isEqualTo("projects/p1/first.jpg");
+        assertThat(deleted.getDelYn()).isEqualTo("Y");
+        verify(imageRepository, never()).save(any());
+        verify(imageOutbox, never()).requestThumbnail(anyLong());
+        verify(imageOutbox).discardStaged(staged, "DUPLICATE");
+        assertThat(dedupCount("race")).isEqualTo(1);
+    }
+
+    @Test
+    void cursorRoundTripsLastId() {
+        when(imageRepository.findFirstPageByProjectId("p1", PageRequest.of(0, 3)))
+                .thenReturn(List.of(summary(1L), summary(2L), summary(3L)));
+
+        CursorPage<ImageSummary> first = imageService.getImagesByCursor("p1", null, 2);
+
+        assertThat(first.items()).extracting(ImageSummary::id).containsExactly(1L, 2L);
+        assertThat(first.nextCursor()).isNotNull();
+
+        when(imageRepository.findByProjectIdWithCursor("p1", 2L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(summary(3L)));
+
+        CursorPage<ImageSummary> second = imageService.getImagesByCursor("p1", first.nextCursor(), 2);
+
+        assertThat(second.items()).extracting(ImageSummary::id).containsExactly(3L);
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void rejectsTamperedCursor() {
+        String wrongVersion = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("v2:5".getBytes(StandardCharsets.UTF_8));
+        String notNumber = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("v1:5 OR 1=1".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : List.of("not base64!", wrongVersion, notNumber)) {
+            assertThatThrownBy(() -> imageService.getImagesByCursor("p1", cursor, 20))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Invalid cursor: " + cursor);
+        }
+        verify(imageRepository, never()).findByProjectIdWithCursor(any(), any(), any());
+    }
+
+    @Test
+    void rejectsCursorBeyondIdRange() {
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("v1:99999999999999999999".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> imageService.getImagesByCursor("p1", cursor, 20))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor: " + cursor);
+    }
+
+    @Test
+    void clampsPageSize() {
+        imageService.getImagesByCursor("p1", null, 10_000);
+        imageService.getImagesByCursor("p1", null, 0);
+
+        // 최대 100건 + 다음 페이지 확인용 1건, 최소 1건 + 1건
+        verify(imageRepository).findFirstPageByProjectId("p1", PageRequest.of(0, 101));
+        verify(imageRepository).findFirstPageByProjectId("p1", PageRequest.of(0, 2));
+    }
+
+    private String register() {
+        return imageService.registerUploadedObject("p1", staged, "mine.jpg",
+                new ContentHasher.ContentHash(ContentHasher.SHA_256, HASH, null), 10);
+    }
+
+    private static Image image(Long id, String fileName, String delYn) {
+        return Image.builder()
+                .id(id)
+                .projectId("p1")
+                .fileName(fileName)
+                .fileHash(HASH)
+                .delYn(delYn)
+                .build();
+    }
+
+    private static ImageSummary summary(Long id) {
+        return new ImageSummary(id, id + ".jpg", "projects/p1/" + id + ".jpg", null, ThumbnailStatus.READY, 10L, null);
+    }
+
+    private double dedupCount(String outcome) {
+        return meterRegistry.counter("image.dedup", "outcome", outcome).count();
+    }
+}
@@ -0,0 +1,113 @@
+package com.first.image.upload.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+class PerceptualHashTest {
+
+    // dedup.perceptual.max-distance 기본값
+    private static final int THRESHOLD = 10;
+
+    @Test
+    void identicalImagesHaveZeroDistance() {
+        assertThat(PerceptualHash.distance(PerceptualHash.dHash(scene(false)), PerceptualHash.dHash(scene(false))))
+                .isZero();
+    }
+
+    @Test
+    void reencodedCopyStaysWithinThreshold() throws IOException {
+        BufferedImage original = scene(false);
+
+        BufferedImage reencoded = jpeg(original, 0.3f);
+
+        assertThat(PerceptualHash.distance(PerceptualHash.dHash(original), PerceptualHash.dHash(reencoded)))
+                .isLessThanOrEqualTo(THRESHOLD);
+    }
+
+    @Test
+    void resizedCopyStaysWithinThreshold() throws IOException {
+        BufferedImage original = scene(false);
+
+        BufferedImage smaller = jpeg(resize(original, 160, 120), 0.7f);
+        BufferedImage larger = resize(original, 1280, 960);
+
+        long hash = PerceptualHash.dHash(original);
+        assertThat(PerceptualHash.distance(hash, PerceptualHash.dHash(smaller))).isLessThanOrEqualTo(THRESHOLD);
+        assertThat(PerceptualHash.distance(hash, PerceptualHash.dHash(larger))).isLessThanOrEqualTo(THRESHOLD);
+    }
+
+    @Test
+    void differentImageIsBeyondThreshold() {
+        assertThat(PerceptualHash.distance(PerceptualHash.dHash(scene(false)), PerceptualHash.dHash(scene(true))))
+                .isGreaterThan(THRESHOLD);
+    }
+
+    @Test
+    void distanceCountsDifferentBits() {
+        assertThat(PerceptualHash.distance(0L, 0L)).isZero();
+        assertThat(PerceptualHash.distance(0L, -1L)).isEqualTo(64);
+        assertThat(PerceptualHash.distance(0b1010L, 0b0110L)).isEqualTo(2);
+    }
+
+    // 그라디언트 배경 위 도형 몇 개 (mirrored 면 좌우를 뒤집은 다른 이미지)
+    private static BufferedImage scene(boolean mirrored) {
+        int width = 640;
+        int height = 480;
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        if (mirrored) {
+            g2d.translate(width, 0);
+            g2d.scale(-1, 1);
+        }
+        g2d.setPaint(new GradientPaint(0, 0, new Color(30, 60, 120), width, height, new Color(240, 200, 120)));
+        g2d.fillRect(0, 0, width, height);
+        g2d.setColor(new Color(250, 250, 250));
+        g2d.fillOval(60, 50, 200, 200);
+        g2d.setColor(new Color(20, 20, 20));
+        g2d.fillRect(380, 120, 180, 300);
+        g2d.setColor(new Color(200, 40, 40));
+        g2d.fillRect(120, 300, 160, 120);
+        g2d.dispose();
+        return image;
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width, int height) {
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = resized.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2d.drawImage(source, 0, 0, width, height, null);
+        g2d.dispose();
+        return resized;
+    }
+
+    private static BufferedImage jpeg(BufferedImage source, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(source, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+}
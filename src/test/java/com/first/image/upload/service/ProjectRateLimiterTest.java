@@ -0,0 +1,127 @@
+package com.first.image.upload.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ProjectRateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private static final long START = 10 * SECOND;
+
+    @Test
+    void bucketAdmitsBurstThenReportsWait() {
+        ProjectRateLimiter.Bucket bucket = new ProjectRateLimiter.Bucket(10, 5);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire(1, START)).isZero();
+        }
+        // 초당 10개이므로 다음 토큰까지 0.1초
+        assertThat(bucket.tryAcquire(1, START)).isEqualTo(SECOND / 10);
+        assertThat(bucket.tryAcquire(1, START + SECOND / 10)).isZero();
+    }
+
+    @Test
+    void bucketRefillsOverTime() {
+        ProjectRateLimiter.Bucket bucket = new ProjectRateLimiter.Bucket(10, 5);
+        for (int i = 0; i < 5; i++) {
+            bucket.tryAcquire(1, START);
+        }
+
+        long later = START + SECOND / 2;
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire(1, later)).isZero();
+        }
+        assertThat(bucket.tryAcquire(1, later)).isPositive();
+    }
+
+    @Test
+    void rejectedAttemptDoesNotConsume() {
+        ProjectRateLimiter.Bucket bucket = new ProjectRateLimiter.Bucket(10, 5);
+        for (int i = 0; i < 5; i++) {
+            bucket.tryAcquire(1, START);
+        }
+
+        long wait = bucket.tryAcquire(1, START);
+        assertThat(bucket.tryAcquire(1, START)).isEqualTo(wait);
+    }
+
+    @Test
+    void refundReturnsCapacity() {
+        ProjectRateLimiter.Bucket bucket = new ProjectRateLimiter.Bucket(10, 5);
+        for (int i = 0; i < 5; i++) {
+            bucket.tryAcquire(1, START);
+        }
+        assertThat(bucket.tryAcquire(1, START)).isPositive();
+
+        bucket.refund(1);
+        assertThat(bucket.tryAcquire(1, START)).isZero();
+        assertThat(bucket.tryAcquire(1, START)).isPositive();
+    }
+
+    @Test
+    void costAboveBurstIsCappedSoLargeRequestCanPass() {
+        ProjectRateLimiter.Bucket bucket = new ProjectRateLimiter.Bucket(10, 5);
+
+        assertThat(bucket.tryAcquire(100, START)).isZero();
+        assertThat(bucket.tryAcquire(1, START)).isPositive();
+    }
+
+    @Test
+    void byteRejectionRefundsRequestTokenAndUsesBoundedTag() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ProjectRateLimiter limiter = limiter(meterRegistry);
+
+        // 바이트 버스트(100)를 넘는 두 번째 요청은 바이트 쿼터로 거절, 요청 토큰은 돌려받음
+        assertThat(limiter.tryAcquire("p1", 100).admitted()).isTrue();
+        ProjectRateLimiter.Decision rejected = limiter.tryAcquire("p1", 100);
+        assertThat(rejected.admitted()).isFalse();
+        assertThat(rejected.limit()).isEqualTo("bytes");
+        assertThat(rejected.retryAfter()).isPositive();
+        assertThat(limiter.tryAcquire("p1", 0).admitted()).isTrue();
+
+        limiter.tryAcquire("p2", 100);
+        limiter.tryAcquire("p2", 100);
+        limiter.tryAcquire("vip", 200);
+        limiter.tryAcquire("vip", 200);
+        List<String> tags = meterRegistry.find("admission.rejected").counters().stream()
+                .map(Meter::getId)
+                .map(id -> id.getTag("project"))
+                .toList();
+        assertThat(tags).containsExactlyInAnyOrder(ProjectRateLimiter.OTHER_PROJECTS, "vip");
+        assertThat(meterRegistry.get("admission.rejected").tag("project", ProjectRateLimiter.OTHER_PROJECTS)
+                .counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void weightScalesQuota() {
+        ProjectRateLimiter limiter = limiter(new SimpleMeterRegistry());
+
+        assertThat(limiter.weightOf("vip")).isEqualTo(2.0);
+        assertThat(limiter.weightOf("p1")).isEqualTo(1.0);
+        // 가중치 2 이므로 바이트 버스트도 200
+        assertThat(limiter.tryAcquire("vip", 200).admitted()).isTrue();
+        assertThat(limiter.tryAcquire("p1", 200).admitted()).isTrue();
+        assertThat(limiter.tryAcquire("vip", 1).admitted()).isFalse();
+    }
+
+    private static ProjectRateLimiter limiter(SimpleMeterRegistry meterRegistry) {
+        ProjectRateLimiter limiter = new ProjectRateLimiter(meterRegistry);
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        ReflectionTestUtils.setField(limiter, "requestsPerSecond", 1.0);
+        ReflectionTestUtils.setField(limiter, "requestBurst", 10.0);
+        ReflectionTestUtils.setField(limiter, "bytesPerSecond", 1.0);
+        ReflectionTestUtils.setField(limiter, "byteBurst", 100.0);
+        ReflectionTestUtils.setField(limiter, "projectWeightConfig", List.of("vip:2"));
+        ReflectionTestUtils.setField(limiter, "idleExpiryMinutes", 10L);
+        limiter.init();
+        return limiter;
+    }
+}
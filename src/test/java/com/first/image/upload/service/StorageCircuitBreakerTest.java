@@ -0,0 +1,147 @@
+package com.first.image.upload.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.first.image.upload.service.StorageCircuitBreaker.State;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class StorageCircuitBreakerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+
+    private StorageCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        breaker = new StorageCircuitBreaker(meterRegistry);
+        ReflectionTestUtils.setField(breaker, "failureThreshold", 3);
+        ReflectionTestUtils.setField(breaker, "openSeconds", 30L);
+        ReflectionTestUtils.setField(breaker, "recoveryRampSeconds", 60L);
+        ReflectionTestUtils.setField(breaker, "clock", clock);
+        breaker.init();
+    }
+
+    @Test
+    void opensAtFailureThreshold() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+
+        breaker.recordFailure();
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.isOpen()).isTrue();
+        assertThat(breaker.dispatchPermits(10)).isZero();
+        assertThat(breaker.retryAt()).isEqualTo(clock.instant().plusSeconds(30));
+        assertThat(meterRegistry.get("storage.circuit.state").gauge().value()).isEqualTo(State.OPEN.ordinal());
+    }
+
+    @Test
+    void successResetsConsecutiveFailures() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordFailure();
+
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void halfOpensAfterOpenPeriodWithSingleProbe() {
+        open();
+
+        clock.advance(Duration.ofSeconds(29));
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.isOpen()).isFalse();
+        assertThat(breaker.dispatchPermits(50)).isEqualTo(1);
+    }
+
+    @Test
+    void failedProbeReopensImmediately() {
+        open();
+        clock.advance(Duration.ofSeconds(30));
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+
+        breaker.recordFailure();
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.retryAt()).isEqualTo(clock.instant().plusSeconds(30));
+    }
+
+    @Test
+    void successfulProbeClosesAndRampsDispatch() {
+        open();
+        clock.advance(Duration.ofSeconds(30));
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+
+        breaker.recordSuccess();
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        // 닫힌 직후에도 최소 1건
+        assertThat(breaker.dispatchPermits(100)).isEqualTo(1);
+
+        clock.advance(Duration.ofSeconds(15));
+        assertThat(breaker.dispatchPermits(100)).isEqualTo(25);
+
+        clock.advance(Duration.ofSeconds(15));
+        assertThat(breaker.dispatchPermits(100)).isEqualTo(50);
+
+        clock.advance(Duration.ofSeconds(30));
+        assertThat(breaker.dispatchPermits(100)).isEqualTo(100);
+        assertThat(breaker.dispatchPermits(0)).isZero();
+    }
+
+    @Test
+    void neverOpenedBreakerDispatchesEverything() {
+        assertThat(breaker.dispatchPermits(40)).isEqualTo(40);
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure();
+        }
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
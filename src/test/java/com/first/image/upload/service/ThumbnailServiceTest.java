@@ -0,0 +1,43 @@
+package com.first.image.upload.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletionException;
+
+import javax.imageio.IIOException;
+
+import org.junit.jupiter.api.Test;
+
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+class ThumbnailServiceTest {
+
+    @Test
+    void sourceProblemsArePermanent() {
+        assertThat(ThumbnailService.isPermanentFailure(new UnsupportedImageException("unsupported format"))).isTrue();
+        assertThat(ThumbnailService.isPermanentFailure(new IIOException("corrupt JPEG"))).isTrue();
+        assertThat(ThumbnailService.isPermanentFailure(NoSuchKeyException.builder().message("gone").build())).isTrue();
+    }
+
+    @Test
+    void wrappedSourceProblemsArePermanent() {
+        assertThat(ThumbnailService.isPermanentFailure(
+                new CompletionException(new UncheckedIOException(new IIOException("truncated"))))).isTrue();
+        assertThat(ThumbnailService.isPermanentFailure(
+                new RuntimeException(NoSuchKeyException.builder().build()))).isTrue();
+    }
+
+    @Test
+    void storageAndNetworkProblemsAreTransient() {
+        assertThat(ThumbnailService.isPermanentFailure(SdkClientException.create("connection refused"))).isFalse();
+        assertThat(ThumbnailService.isPermanentFailure(
+                S3Exception.builder().statusCode(503).message("slow down").build())).isFalse();
+        assertThat(ThumbnailService.isPermanentFailure(new IOException(new SocketTimeoutException()))).isFalse();
+        assertThat(ThumbnailService.isPermanentFailure(new IllegalStateException("pool exhausted"))).isFalse();
+    }
+}